@@ -27,6 +27,10 @@ android {
             )
         }
     }
+    androidResources {
+        // The phrasebook is memory-mapped straight out of the APK
+        noCompress += "bin"
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
@@ -34,6 +38,7 @@ android {
 }
 
 dependencies {
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -46,4 +51,5 @@ dependencies {
     implementation("com.google.code.gson:gson:2.10.1")
     implementation("androidx.media:media:1.7.0")
     implementation("commons-codec:commons-codec:1.16.0")
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.11.0")
 }
\ No newline at end of file
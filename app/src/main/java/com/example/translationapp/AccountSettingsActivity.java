@@ -13,10 +13,8 @@ import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
-import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.RequestBody;
+import java.io.IOException;
+
 import okhttp3.Response;
 
 public class AccountSettingsActivity extends AppCompatActivity {
@@ -59,13 +57,7 @@ public class AccountSettingsActivity extends AppCompatActivity {
     private void loadUserData(String username) {
         new Thread(() -> {
             try {
-                OkHttpClient client = new OkHttpClient();
-                Request request = new Request.Builder()
-                        .url(Config.BASE_URL + "auth/user/" + username)
-                        .get()
-                        .build();
-
-                try (Response response = client.newCall(request).execute()) {
+                try (Response response = TranslationApiClient.getInstance().getUser(username).execute()) {
                     if (response.isSuccessful() && response.body() != null) {
                         String responseBody = response.body().string();
                         JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
@@ -96,19 +88,7 @@ public class AccountSettingsActivity extends AppCompatActivity {
 
         new Thread(() -> {
             try {
-                OkHttpClient client = new OkHttpClient();
-                JsonObject jsonObject = new JsonObject();
-                if (!email.isEmpty()) jsonObject.addProperty("email", email);
-                if (!phone.isEmpty()) jsonObject.addProperty("phone", phone);
-
-                RequestBody body = RequestBody.create(jsonObject.toString(), MediaType.parse("application/json"));
-                
-                Request request = new Request.Builder()
-                        .url(Config.BASE_URL + "auth/user/" + username)
-                        .put(body)
-                        .build();
-
-                try (Response response = client.newCall(request).execute()) {
+                try (Response response = TranslationApiClient.getInstance().updateUser(username, email, phone).execute()) {
                     runOnUiThread(() -> {
                         if (response.isSuccessful()) {
                             Toast.makeText(this, "Profile updated successfully", Toast.LENGTH_SHORT).show();
@@ -117,6 +97,14 @@ public class AccountSettingsActivity extends AppCompatActivity {
                         }
                     });
                 }
+            } catch (IOException e) {
+                // Offline: keep the update and send it when the network is back
+                try {
+                    OutboxManager.getInstance(this).enqueueUpdateUser(username, email, phone);
+                    runOnUiThread(() -> Toast.makeText(this, "You're offline. The profile will be updated once you're back online.", Toast.LENGTH_LONG).show());
+                } catch (IOException queueError) {
+                    runOnUiThread(() -> Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+                }
             } catch (Exception e) {
                 runOnUiThread(() -> Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
             }
@@ -134,19 +122,9 @@ public class AccountSettingsActivity extends AppCompatActivity {
 
         new Thread(() -> {
             try {
-                OkHttpClient client = new OkHttpClient();
-                JsonObject jsonObject = new JsonObject();
-                jsonObject.addProperty("oldPassword", oldPass);
-                jsonObject.addProperty("newPassword", newPass);
-
-                RequestBody body = RequestBody.create(jsonObject.toString(), MediaType.parse("application/json"));
-                
-                Request request = new Request.Builder()
-                        .url(Config.BASE_URL + "auth/user/" + username + "/password")
-                        .put(body)
-                        .build();
-
-                try (Response response = client.newCall(request).execute()) {
+                try (Response response = TranslationApiClient.getInstance()
+                        .changePassword(username, oldPass, newPass)
+                        .execute()) {
                     runOnUiThread(() -> {
                         if (response.isSuccessful()) {
                             Toast.makeText(this, "Password changed successfully", Toast.LENGTH_SHORT).show();
@@ -181,13 +159,7 @@ public class AccountSettingsActivity extends AppCompatActivity {
     private void deleteAccount(String username, String password) {
         new Thread(() -> {
             try {
-                OkHttpClient client = new OkHttpClient();
-                Request request = new Request.Builder()
-                        .url(Config.BASE_URL + "auth/user/" + username + "?password=" + password)
-                        .delete()
-                        .build();
-
-                try (Response response = client.newCall(request).execute()) {
+                try (Response response = TranslationApiClient.getInstance().deleteUser(username, password).execute()) {
                     runOnUiThread(() -> {
                         if (response.isSuccessful()) {
                             Toast.makeText(this, "Account deleted", Toast.LENGTH_SHORT).show();
@@ -2,12 +2,9 @@ package com.example.translationapp;
 
 import android.content.Context;
 import android.media.MediaPlayer;
-import android.os.AsyncTask;
-import android.util.Base64;
 import android.widget.Toast;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 
 public class AudioPlayer {
@@ -20,10 +17,10 @@ public class AudioPlayer {
     }
 
     /**
-     * Play audio from base64 string
+     * Play an already decoded audio file
      */
-    public void playAudio(String base64Audio) {
-        if (base64Audio == null || base64Audio.isEmpty()) {
+    public void playAudio(File audioFile) {
+        if (audioFile == null || !audioFile.exists()) {
             Toast.makeText(context, "No audio available", Toast.LENGTH_SHORT).show();
             return;
         }
@@ -31,7 +28,23 @@ public class AudioPlayer {
         // Stop any currently playing audio
         stop();
 
-        new PlayAudioTask().execute(base64Audio);
+        try {
+            mediaPlayer = new MediaPlayer();
+            mediaPlayer.setDataSource(audioFile.getAbsolutePath());
+            mediaPlayer.setOnPreparedListener(MediaPlayer::start);
+
+            // Release media player when done
+            mediaPlayer.setOnCompletionListener(mp -> {
+                mp.release();
+                if (mediaPlayer == mp) mediaPlayer = null;
+            });
+            mediaPlayer.prepareAsync();
+
+        } catch (IOException e) {
+            Toast.makeText(context, "Error playing audio: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            e.printStackTrace();
+            stop();
+        }
     }
 
     /**
@@ -60,58 +73,4 @@ public class AudioPlayer {
     public void cleanup() {
         stop();
     }
-
-    private class PlayAudioTask extends AsyncTask<String, Void, File> {
-
-        @Override
-        protected File doInBackground(String... params) {
-            String base64Audio = params[0];
-
-            try {
-                // Decode base64 to byte array
-                byte[] audioBytes = Base64.decode(base64Audio, Base64.DEFAULT);
-
-                // Create temporary file
-                File tempFile = File.createTempFile("audio_" + System.currentTimeMillis(), ".mp3", context.getCacheDir());
-                tempFile.deleteOnExit();
-
-                // Write bytes to file
-                FileOutputStream fos = new FileOutputStream(tempFile);
-                fos.write(audioBytes);
-                fos.close();
-
-                return tempFile;
-
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
-            }
-        }
-
-        @Override
-        protected void onPostExecute(File tempFile) {
-            if (tempFile == null) {
-                Toast.makeText(context, "Error preparing audio", Toast.LENGTH_SHORT).show();
-                return;
-            }
-
-            try {
-                mediaPlayer = new MediaPlayer();
-                mediaPlayer.setDataSource(tempFile.getAbsolutePath());
-                mediaPlayer.prepare();
-                mediaPlayer.start();
-
-                // Release media player when done
-                mediaPlayer.setOnCompletionListener(mp -> {
-                    mp.release();
-                    mediaPlayer = null;
-                    tempFile.delete();
-                });
-
-            } catch (IOException e) {
-                Toast.makeText(context, "Error playing audio: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                e.printStackTrace();
-            }
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,160 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+/**
+ * Translates several texts into several target languages at once. Every
+ * (text, target) pair is answered from {@link TranslationCache} when possible;
+ * the rest are sent together as text-only /translate calls, which the shared
+ * client multiplexes over one HTTP/2 connection instead of running one round
+ * trip after another. Each result is reported as soon as it arrives.
+ */
+public class BatchTranslator {
+
+    public interface Listener {
+        /**
+         * @param cached true if the translation came from the cache rather than the server
+         */
+        void onResult(String text, String to, String translation, boolean cached);
+        void onFailure(String text, String to, IOException e);
+        /**
+         * Every pair has been answered or has failed
+         */
+        void onComplete();
+    }
+
+    private final TranslationApiClient client;
+    private final TranslationCache cache;
+
+    public BatchTranslator(TranslationApiClient client, TranslationCache cache) {
+        this.client = client;
+        this.cache = cache;
+    }
+
+    /**
+     * Start translating every text into every target. Identical pairs are
+     * requested once. Cache lookups may touch the disk, so call it off the main
+     * thread; listener methods run on that thread or on OkHttp's threads.
+     */
+    public Batch start(List<String> texts, List<String> targets, String username, Listener listener) {
+        Map<String, Pair> pairs = new LinkedHashMap<>();
+        for (String text : texts) {
+            for (String to : targets) {
+                pairs.putIfAbsent(TranslationCache.key(text, to, false), new Pair(text, to));
+            }
+        }
+
+        Batch batch = new Batch(pairs.size(), listener);
+        List<Pair> misses = new ArrayList<>();
+        for (Pair pair : pairs.values()) {
+            TranslationCache.Entry cached = cache.get(pair.text, pair.to, false);
+            if (cached != null) {
+                batch.deliver(pair, cached.getTranslation(), true, null);
+            } else {
+                misses.add(pair);
+            }
+        }
+        for (Pair pair : misses) {
+            if (batch.isCancelled()) break;
+            send(batch, pair, username);
+        }
+        return batch;
+    }
+
+    private void send(Batch batch, Pair pair, String username) {
+        Call call = client.translate(pair.text, pair.to, false, username);
+        if (!batch.track(call)) return;
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                batch.deliver(pair, null, false, e);
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                try (Response r = response) {
+                    if (!r.isSuccessful() || r.body() == null) {
+                        throw new IOException("Translate failed with HTTP " + r.code());
+                    }
+                    String translation = TranslationResponseReader.read(r.body(), null).getTranslation();
+                    if (translation == null) throw new IOException("No translation in response");
+                    cache.put(pair.text, pair.to, false, translation, null);
+                    batch.deliver(pair, translation, false, null);
+                } catch (IOException e) {
+                    batch.deliver(pair, null, false, e);
+                }
+            }
+        });
+    }
+
+    private static class Pair {
+        final String text;
+        final String to;
+
+        Pair(String text, String to) {
+            this.text = text;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Handle on a running batch; cancelling it stops all calls and callbacks
+     */
+    public static class Batch {
+        private final Listener listener;
+        private final List<Call> calls = new ArrayList<>();
+        private int remaining;
+        private boolean cancelled;
+
+        Batch(int size, Listener listener) {
+            this.remaining = size;
+            this.listener = listener;
+            if (size == 0) listener.onComplete();
+        }
+
+        public void cancel() {
+            List<Call> running;
+            synchronized (this) {
+                if (cancelled) return;
+                cancelled = true;
+                running = new ArrayList<>(calls);
+                calls.clear();
+            }
+            for (Call call : running) call.cancel();
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        private synchronized boolean track(Call call) {
+            if (cancelled) return false;
+            calls.add(call);
+            return true;
+        }
+
+        private void deliver(Pair pair, String translation, boolean cached, IOException error) {
+            if (isCancelled()) return;
+            if (error != null) {
+                listener.onFailure(pair.text, pair.to, error);
+            } else {
+                listener.onResult(pair.text, pair.to, translation, cached);
+            }
+            // Counted after the callback so onComplete never overtakes another pair's result
+            boolean complete;
+            synchronized (this) {
+                complete = --remaining == 0 && !cancelled;
+            }
+            if (complete) listener.onComplete();
+        }
+    }
+}
@@ -2,19 +2,14 @@ package com.example.translationapp;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.media.MediaPlayer;
-import android.util.Base64;
-import android.widget.Toast;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
 
 public class Config {
     public static final String BASE_URL = "http://192.168.1.7:8080/translation-service/api/";
     private static final String PREF_NAME = "TranslationAppPrefs";
     private static final String KEY_USERNAME = "username";
     private static final String KEY_REMEMBER_ME = "remember_me";
+    private static final String KEY_LIVE_TRANSLATE = "live_translate";
+    private static final String KEY_PHRASEBOOK_CHECKED_AT = "phrasebook_checked_at";
 
     public static void saveUsername(Context context, String username) {
         SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
@@ -40,55 +35,45 @@ public class Config {
         return prefs.getBoolean(KEY_REMEMBER_ME, false);
     }
 
-    public static void clearUserData(Context context) {
+    public static void setLiveTranslate(Context context, boolean enabled) {
         SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
         prefs.edit()
-                .remove(KEY_USERNAME)
-                .remove(KEY_REMEMBER_ME)
+                .putBoolean(KEY_LIVE_TRANSLATE, enabled)
                 .apply();
     }
 
-    /**
-     * Play audio from base64 string
-     */
-    public static void playAudioFromBase64(Context context, String base64Audio) {
-        if (base64Audio == null || base64Audio.isEmpty()) {
-            Toast.makeText(context, "No audio available", Toast.LENGTH_SHORT).show();
-            return;
-        }
-
-        try {
-            // Decode base64 to byte array
-            byte[] audioBytes = Base64.decode(base64Audio, Base64.DEFAULT);
-
-            // Create temporary file
-            File tempFile = File.createTempFile("audio", ".mp3", context.getCacheDir());
-            tempFile.deleteOnExit();
-
-            // Write bytes to file
-            FileOutputStream fos = new FileOutputStream(tempFile);
-            fos.write(audioBytes);
-            fos.close();
+    public static boolean isLiveTranslate(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        return prefs.getBoolean(KEY_LIVE_TRANSLATE, false);
+    }
 
-            // Play audio using MediaPlayer
-            MediaPlayer mediaPlayer = new MediaPlayer();
-            mediaPlayer.setDataSource(tempFile.getAbsolutePath());
-            mediaPlayer.prepare();
-            mediaPlayer.start();
+    public static void setPhrasebookCheckedAt(Context context, long millis) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        prefs.edit()
+                .putLong(KEY_PHRASEBOOK_CHECKED_AT, millis)
+                .apply();
+    }
 
-            // Release media player when done
-            mediaPlayer.setOnCompletionListener(mp -> {
-                mp.release();
-                tempFile.delete();
-            });
+    public static long getPhrasebookCheckedAt(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        return prefs.getLong(KEY_PHRASEBOOK_CHECKED_AT, 0);
+    }
 
-        } catch (IOException e) {
-            Toast.makeText(context, "Error playing audio: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-            e.printStackTrace();
-        }
+    public static void clearUserData(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        prefs.edit()
+                .remove(KEY_USERNAME)
+                .remove(KEY_REMEMBER_ME)
+                .apply();
+        // The next user of this device must not see the history, nor get what was queued
+        OutboxManager.getInstance(context).clear();
+        HistoryRepository.getInstance(context).deleteAll();
     }
 
-    public static boolean isLoggedIn(SplashActivity splashActivity) {
-        return true;
+    /**
+     * A remembered user with a stored username, who can skip the login screen
+     */
+    public static boolean isLoggedIn(Context context) {
+        return isRememberMe(context) && getUsername(context) != null;
     }
 }
\ No newline at end of file
@@ -20,20 +20,15 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
-import okhttp3.HttpUrl;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
 import okhttp3.Response;
-import okhttp3.ResponseBody;
 
 public class HistoryActivity extends AppCompatActivity {
 
@@ -43,8 +38,33 @@ public class HistoryActivity extends AppCompatActivity {
     private Button btnClearHistory;
     private EditText etSearch;
     private View emptyState;
-    private List<HistoryItem> fullHistoryList = new ArrayList<>();
-    private List<HistoryItem> filteredList = new ArrayList<>();
+    private String username;
+    private HistoryRepository repository;
+    // History shown by the adapter, as last published by the repository
+    private HistorySnapshot.View snapshot = HistorySnapshot.View.EMPTY;
+    private HistoryColumns columns;
+    // Index and the snapshot it was built from are only touched on the search thread
+    private final HistorySearchIndex searchIndex = new HistorySearchIndex();
+    private HistorySnapshot.View indexedSnapshot;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger searchGeneration = new AtomicInteger();
+
+    private final HistoryRepository.Listener historyListener = new HistoryRepository.Listener() {
+        @Override
+        public void onHistoryChanged(HistorySnapshot.View rows, HistoryColumns filled) {
+            showHistory(rows, filled);
+        }
+
+        @Override
+        public void onLoadFailed(IOException e) {
+            Toast.makeText(HistoryActivity.this, "Error loading history", Toast.LENGTH_SHORT).show();
+        }
+
+        @Override
+        public void onSyncFailed(IOException e) {
+            Toast.makeText(HistoryActivity.this, "Could not sync history", Toast.LENGTH_SHORT).show();
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -64,7 +84,7 @@ public class HistoryActivity extends AppCompatActivity {
         emptyState = findViewById(R.id.empty_state);
 
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        adapter = new HistoryAdapter(filteredList);
+        adapter = new HistoryAdapter();
         recyclerView.setAdapter(adapter);
 
         // Search functionality
@@ -91,114 +111,190 @@ public class HistoryActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Run the query against the index on the search thread, together with
+     * the diff from what the adapter shows; a newer keystroke cancels it
+     */
     private void filter(String query) {
-        if (query.isEmpty()) {
-            filteredList.clear();
-            filteredList.addAll(fullHistoryList);
-        } else {
-            String lowerQuery = query.toLowerCase();
-            filteredList.clear();
-            for (HistoryItem item : fullHistoryList) {
-                if (item.getOriginalText().toLowerCase().contains(lowerQuery) ||
-                    item.getTranslatedText().toLowerCase().contains(lowerQuery)) {
-                    filteredList.add(item);
-                }
+        int generation = searchGeneration.incrementAndGet();
+        HistorySnapshot.View view = snapshot;
+        HistoryColumns filled = columns;
+        // Only the latest generation is applied, so the adapter still shows these when it is
+        HistorySnapshot.View shownRows = adapter.getRows();
+        int[] shownMatches = adapter.getMatches();
+        searchExecutor.execute(() -> {
+            int[] matches = null;
+            if (!query.isEmpty()) {
+                BooleanSupplier cancelled = () -> searchGeneration.get() != generation;
+                indexSnapshot(view);
+                matches = searchIndex.match(query, cancelled);
+                if (matches == null) return;
             }
+            HistoryRowsDiff diff = HistoryRowsDiff.compute(shownRows, shownMatches, view, matches);
+            int[] shown = matches;
+
+            runOnUiThread(() -> {
+                if (searchGeneration.get() != generation) return;
+                adapter.show(view, filled, shown, diff);
+                updateEmptyState();
+            });
+        });
+    }
+
+    /**
+     * Bring the index up to view, decoding only the rows appended since it
+     * was last built unless the snapshot was rewritten. Index documents are
+     * snapshot indices. Search thread only.
+     */
+    private void indexSnapshot(HistorySnapshot.View view) {
+        if (!view.startsWith(indexedSnapshot)) searchIndex.clear();
+        for (int i = searchIndex.size(); i < view.size(); i++) {
+            HistoryItem item = view.get(i);
+            searchIndex.add(item.getOriginalText(), item.getTranslatedText());
         }
-        adapter.notifyDataSetChanged();
-        updateEmptyState();
+        indexedSnapshot = view;
     }
 
     private void updateEmptyState() {
-        if (filteredList.isEmpty()) {
+        int count = adapter.getItemCount();
+        if (count == 0) {
             emptyState.setVisibility(View.VISIBLE);
             recyclerView.setVisibility(View.GONE);
         } else {
             emptyState.setVisibility(View.GONE);
             recyclerView.setVisibility(View.VISIBLE);
         }
-        tvHistoryCount.setText("Showing " + filteredList.size() + " items");
+        tvHistoryCount.setText("Showing " + count + " items");
     }
 
     private void loadTranslationHistory() {
-        new Thread(() -> {
-            try {
-                String username = Config.getUsername(HistoryActivity.this);
-                if (username == null) return;
-
-                OkHttpClient client = new OkHttpClient();
-                HttpUrl url = HttpUrl.parse(Config.BASE_URL + "translate/history")
-                        .newBuilder()
-                        .addQueryParameter("username", username)
-                        .build();
-
-                Request request = new Request.Builder().url(url).get().build();
-
-                try (Response response = client.newCall(request).execute()) {
-                    if (response.isSuccessful() && response.body() != null) {
-                        String responseBody = response.body().string();
-                        JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
-                        JsonArray historyArray = json.getAsJsonArray("history");
-
-                        fullHistoryList.clear();
-                        for (int i = 0; i < historyArray.size(); i++) {
-                            JsonObject item = historyArray.get(i).getAsJsonObject();
-                            fullHistoryList.add(new HistoryItem(
-                                    item.get("id").getAsString(),
-                                    item.get("originalText").getAsString(),
-                                    item.get("translatedText").getAsString(),
-                                    item.get("targetLang").getAsString(),
-                                    item.get("timestamp").getAsString()
-                            ));
-                        }
-
-                        runOnUiThread(() -> {
-                            filteredList.clear();
-                            filteredList.addAll(fullHistoryList);
-                            adapter.notifyDataSetChanged();
-                            updateEmptyState();
-                        });
-                    }
-                }
-            } catch (IOException e) {
-                runOnUiThread(() -> Toast.makeText(this, "Error loading history", Toast.LENGTH_SHORT).show());
-            }
-        }).start();
+        username = Config.getUsername(this);
+        if (username == null) return;
+
+        // Usually prefetched by TranslationActivity: shown at once, then brought
+        // up to date, and the server asked only if the last sync is stale
+        repository = HistoryRepository.getInstance(this);
+        repository.addListener(historyListener);
+        HistorySnapshot.View rows = repository.getRows(username);
+        if (rows != null) showHistory(rows, repository.getColumns(username));
+        repository.prefetch(username);
+    }
+
+    /**
+     * columns holds the same rows once filled; until then rows are decoded from the mapping as they are bound
+     */
+    private void showHistory(HistorySnapshot.View rows, HistoryColumns filled) {
+        if (rows == snapshot && filled == columns) return;
+        snapshot = rows;
+        columns = filled;
+        filter(etSearch.getText().toString());
     }
 
     private void clearHistory() {
+        String username = Config.getUsername(this);
         new Thread(() -> {
             try {
-                String username = Config.getUsername(this);
-                OkHttpClient client = new OkHttpClient();
-                HttpUrl url = HttpUrl.parse(Config.BASE_URL + "translate/clear-history")
-                        .newBuilder()
-                        .addQueryParameter("username", username)
-                        .build();
-
-                Request request = new Request.Builder().url(url).get().build();
-                try (Response response = client.newCall(request).execute()) {
+                try (Response response = TranslationApiClient.getInstance().clearHistory(username).execute()) {
                     if (response.isSuccessful()) {
-                        runOnUiThread(() -> {
-                            fullHistoryList.clear();
-                            filteredList.clear();
-                            adapter.notifyDataSetChanged();
-                            updateEmptyState();
-                            Toast.makeText(this, "History cleared", Toast.LENGTH_SHORT).show();
-                        });
+                        HistoryRepository.getInstance(this).clear(username);
+                        runOnUiThread(() -> onHistoryCleared("History cleared"));
                     }
                 }
             } catch (IOException e) {
-                runOnUiThread(() -> Toast.makeText(this, "Connection error", Toast.LENGTH_SHORT).show());
+                // Offline: clear locally now and let the outbox tell the server later
+                try {
+                    OutboxManager.getInstance(this).enqueueClearHistory(username);
+                    HistoryRepository.getInstance(this).clear(username);
+                    runOnUiThread(() -> onHistoryCleared("History cleared. The server will be updated once you're back online."));
+                } catch (IOException queueError) {
+                    runOnUiThread(() -> Toast.makeText(this, "Connection error", Toast.LENGTH_SHORT).show());
+                }
             }
         }).start();
     }
 
-    // RecyclerView Adapter
+    private void onHistoryCleared(String message) {
+        // The repository publishes the emptied history shortly
+        showHistory(HistorySnapshot.View.EMPTY, null);
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchGeneration.incrementAndGet();
+        searchExecutor.shutdownNow();
+        if (repository != null) repository.removeListener(historyListener);
+    }
+
+    // RecyclerView Adapter over the mapped snapshot: it holds the snapshot's
+    // offsets and the matching indices, and decodes a row only to bind it
     private class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHolder> {
-        private List<HistoryItem> items;
+        private HistorySnapshot.View rows = HistorySnapshot.View.EMPTY;
+        // Snapshot indices of the search matches, ascending; null shows every row
+        private int[] matches;
+        // The same rows as columns once filled, null until then
+        private HistoryColumns columns;
+        // "EN → DARIJA" per language code of columns
+        private String[] languageTags;
+
+        HistoryAdapter() {
+            setHasStableIds(true);
+        }
 
-        HistoryAdapter(List<HistoryItem> items) { this.items = items; }
+        /**
+         * Show rows, or only the matches among them, notifying just the rows
+         * that came or went. Filling in columns changes no row's content.
+         *
+         * @param diff from the rows and matches shown until now to these
+         */
+        void show(HistorySnapshot.View rows, HistoryColumns columns, int[] matches, HistoryRowsDiff diff) {
+            if (columns != this.columns) languageTags = new String[16];
+            this.rows = rows;
+            this.columns = columns;
+            this.matches = matches;
+            diff.dispatchTo(notifier);
+        }
+
+        HistorySnapshot.View getRows() {
+            return rows;
+        }
+
+        int[] getMatches() {
+            return matches;
+        }
+
+        private final HistoryRowsDiff.Callback notifier = new HistoryRowsDiff.Callback() {
+            @Override
+            public void onInserted(int position, int count) {
+                notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                notifyItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onChanged(int position, int count) {
+                notifyItemRangeChanged(position, count);
+            }
+        };
+
+        private int indexAt(int position) {
+            return HistoryRowsDiff.indexAt(rows, matches, position);
+        }
+
+        @Override
+        public int getItemCount() {
+            return HistoryRowsDiff.count(rows, matches);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            // A row keeps its index as the snapshot grows
+            return indexAt(position);
+        }
 
         @NonNull
         @Override
@@ -209,7 +305,13 @@ public class HistoryActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            HistoryItem item = items.get(position);
+            int index = indexAt(position);
+            if (columns != null) {
+                bindColumns(holder, index);
+                return;
+            }
+
+            HistoryItem item = rows.get(index);
             holder.tvOriginal.setText(item.getOriginalText());
             holder.tvTranslated.setText(item.getTranslatedText());
             holder.tvLangTag.setText("EN → " + item.getTargetLang().toUpperCase());
@@ -222,8 +324,18 @@ public class HistoryActivity extends AppCompatActivity {
             holder.itemView.setOnClickListener(v -> showDetailDialog(item));
         }
 
-        @Override
-        public int getItemCount() { return items.size(); }
+        private void bindColumns(ViewHolder holder, int index) {
+            HistoryColumns rowColumns = columns;
+            holder.tvOriginal.setText(rowColumns.getOriginalText(index));
+            holder.tvTranslated.setText(rowColumns.getTranslatedText(index));
+            int language = rowColumns.getLanguageCode(index);
+            if (language >= languageTags.length) languageTags = Arrays.copyOf(languageTags, language + 16);
+            if (languageTags[language] == null) languageTags[language] = "EN → " + rowColumns.getLanguageLabel(index);
+            holder.tvLangTag.setText(languageTags[language]);
+            holder.tvTimestamp.setText(rowColumns.getDateLabel(index));
+
+            holder.itemView.setOnClickListener(v -> showDetailDialog(rowColumns.get(index)));
+        }
 
         class ViewHolder extends RecyclerView.ViewHolder {
             TextView tvOriginal, tvTranslated, tvLangTag, tvTimestamp;
@@ -252,16 +364,4 @@ public class HistoryActivity extends AppCompatActivity {
                 })
                 .show();
     }
-
-    public static class HistoryItem {
-        private String id, originalText, translatedText, targetLang, timestamp;
-        public HistoryItem(String id, String originalText, String translatedText, String targetLang, String timestamp) {
-            this.id = id; this.originalText = originalText; this.translatedText = translatedText;
-            this.targetLang = targetLang; this.timestamp = timestamp;
-        }
-        public String getOriginalText() { return originalText; }
-        public String getTranslatedText() { return translatedText; }
-        public String getTargetLang() { return targetLang; }
-        public String getTimestamp() { return timestamp; }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import okhttp3.Response;
+
+/**
+ * Reads the server's translation history one page at a time, following
+ * nextCursor. Items of a page are handed over in batches as they are
+ * decoded. A server that ignores paging simply returns everything in the
+ * first page without a nextCursor.
+ */
+public final class HistoryPages {
+
+    public interface Loader {
+        /**
+         * Load the page starting at cursor (null for the first page), passing
+         * items to the sink as they become available.
+         *
+         * @return the cursor of the following page, or null when this was the last one
+         */
+        String loadPage(String cursor, int limit, HistoryDecoder.BatchListener sink) throws IOException;
+    }
+
+    private static final int BATCH_SIZE = 50;
+
+    private HistoryPages() {
+    }
+
+    /**
+     * Pages of /translate/history newer than since (null for everything)
+     */
+    public static Loader remote(TranslationApiClient client, String username, String since) {
+        return (cursor, limit, sink) -> {
+            try (Response response = client.history(username, since, cursor, limit).execute()) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    throw new IOException("HTTP " + response.code());
+                }
+                Reader body = response.body().charStream();
+                return HistoryDecoder.decode(body, BATCH_SIZE, sink).getNextCursor();
+            }
+        };
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.translationapp;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide, in-memory history of the signed-in user, kept in step with
+ * {@link HistoryStore}. TranslationActivity prefetches it and records each
+ * new translation through it, so HistoryActivity can show it as soon as it
+ * opens. The server is asked for changes only when the last sync is older
+ * than {@link #STALE_AFTER_MILLIS}.
+ *
+ * The mapped snapshot comes first so there is something to show, then the
+ * same rows as {@link HistoryColumns}. Appends extend the columns in place
+ * rather than rebuilding them. State is read and changed on the main
+ * thread only; disk and network work runs in the background.
+ */
+public class HistoryRepository {
+
+    public interface Listener {
+        /**
+         * columns holds the same rows as rows, or is null until it has been filled
+         */
+        void onHistoryChanged(HistorySnapshot.View rows, HistoryColumns columns);
+        void onLoadFailed(IOException e);
+        void onSyncFailed(IOException e);
+    }
+
+    static final long STALE_AFTER_MILLIS = 5 * 60_000L;
+
+    private static volatile HistoryRepository instance;
+
+    private final Context context;
+    private final HistoryStore store;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Loads and local writes, in order
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final ExecutorService syncer = Executors.newSingleThreadExecutor();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Main thread only
+    private String username;
+    private HistorySnapshot.View rows;
+    private HistoryColumns columns;
+    private final Map<String, Long> lastSynced = new HashMap<>();
+    private boolean syncing;
+
+    // Worker thread only: what the last published state was built from
+    private String loadedUser;
+    private HistorySnapshot.View loadedView;
+
+    public static HistoryRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (HistoryRepository.class) {
+                if (instance == null) {
+                    instance = new HistoryRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private HistoryRepository(Context context) {
+        this.context = context;
+        this.store = HistoryStore.getInstance(context);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Rows of username loaded so far, or null if there are none yet. Main thread only.
+     */
+    public HistorySnapshot.View getRows(String username) {
+        return username.equals(this.username) ? rows : null;
+    }
+
+    /**
+     * Columns for {@link #getRows}, or null until filled. Main thread only.
+     */
+    public HistoryColumns getColumns(String username) {
+        return username.equals(this.username) ? columns : null;
+    }
+
+    /**
+     * Load username's history in the background and revalidate it if stale.
+     * Main thread only.
+     */
+    public void prefetch(String username) {
+        load(username);
+        revalidateIfStale(username);
+    }
+
+    /**
+     * Bring the in-memory history up to what is stored; cheap when it already is
+     */
+    public void load(String username) {
+        worker.execute(() -> reload(username));
+    }
+
+    /**
+     * Ask the server for entries added since the last sync, unless that sync
+     * is recent or one is running. Main thread only.
+     */
+    public void revalidateIfStale(String username) {
+        Long last = lastSynced.get(username);
+        if (syncing || (last != null && SystemClock.elapsedRealtime() - last < STALE_AFTER_MILLIS)) return;
+        syncing = true;
+        int generation = store.getGeneration();
+        syncer.execute(() -> {
+            try {
+                int added = store.syncFromServer(TranslationApiClient.getInstance(), username, generation);
+                mainHandler.post(() -> {
+                    syncing = false;
+                    // A sync cut short by deleteAll stored nothing
+                    if (generation == store.getGeneration()) lastSynced.put(username, SystemClock.elapsedRealtime());
+                });
+                if (added > 0) load(username);
+            } catch (IOException | RuntimeException e) {
+                IOException error = e instanceof IOException ? (IOException) e : new IOException(e);
+                mainHandler.post(() -> {
+                    syncing = false;
+                    for (Listener listener : listeners) listener.onSyncFailed(error);
+                });
+            }
+        });
+    }
+
+    /**
+     * Record a translation made on this device, on disk and in memory.
+     * May be called from any thread.
+     */
+    public void addLocal(String username, String originalText, String translatedText, String targetLang) {
+        add(username, originalText, translatedText, targetLang, false);
+    }
+
+    /**
+     * Like {@link #addLocal}, for a translation the server did not record,
+     * e.g. a phrasebook answer or a cache hit
+     */
+    public void addLocalOnly(String username, String originalText, String translatedText, String targetLang) {
+        add(username, originalText, translatedText, targetLang, true);
+    }
+
+    private void add(String username, String originalText, String translatedText, String targetLang,
+                     boolean localOnly) {
+        // A translation finishing after its user logged out is not kept for them
+        if (!username.equals(Config.getUsername(context))) return;
+        int generation = store.getGeneration();
+        worker.execute(() -> {
+            store.addLocal(username, originalText, translatedText, targetLang, localOnly, generation);
+            // Only worth mapping if the history was loaded; otherwise the next load picks it up
+            if (username.equals(loadedUser)) reload(username);
+        });
+    }
+
+    /**
+     * Delete the user's local history. May be called from any thread.
+     */
+    public void clear(String username) {
+        worker.execute(() -> {
+            store.clear(username);
+            if (username.equals(loadedUser)) reload(username);
+        });
+    }
+
+    /**
+     * Delete all local history and forget what was loaded, e.g. on logout.
+     * A sync still running for the old session stores nothing. Main thread only.
+     */
+    public void deleteAll() {
+        store.endSession();
+        lastSynced.clear();
+        // The next user's sync queues behind the old one rather than being skipped
+        syncing = false;
+        worker.execute(() -> {
+            store.deleteAll();
+            loadedUser = null;
+            loadedView = null;
+            // After anything the worker published before
+            mainHandler.post(() -> {
+                username = null;
+                rows = null;
+                columns = null;
+            });
+        });
+    }
+
+    /**
+     * Worker thread: map the snapshot and publish it, reusing the columns
+     * when only rows were appended since the last time
+     */
+    private void reload(String user) {
+        HistorySnapshot.View view;
+        try {
+            view = store.snapshot(user);
+        } catch (IOException | RuntimeException e) {
+            IOException error = e instanceof IOException ? (IOException) e : new IOException(e);
+            mainHandler.post(() -> {
+                for (Listener listener : listeners) listener.onLoadFailed(error);
+            });
+            return;
+        }
+
+        if (user.equals(loadedUser) && view.startsWith(loadedView)) {
+            if (view.size() == loadedView.size()) return;
+            List<HistoryItem> added = new ArrayList<>(view.size() - loadedView.size());
+            for (int i = loadedView.size(); i < view.size(); i++) added.add(view.get(i));
+            loadedView = view;
+            mainHandler.post(() -> {
+                if (!user.equals(username)) return;
+                if (columns != null) columns.addAll(added);
+                publish(user, view, columns);
+            });
+            return;
+        }
+
+        // New user or rewritten snapshot: show the mapping now, columns when filled
+        loadedUser = user;
+        loadedView = view;
+        mainHandler.post(() -> publish(user, view, null));
+        HistoryColumns filled = new HistoryColumns();
+        filled.addAll(view, 0);
+        filled.trimToSize();
+        mainHandler.post(() -> {
+            if (rows == view) publish(user, view, filled);
+        });
+    }
+
+    private void publish(String user, HistorySnapshot.View view, HistoryColumns filled) {
+        username = user;
+        rows = view;
+        columns = filled;
+        for (Listener listener : listeners) listener.onHistoryChanged(view, filled);
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.translationapp;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local SQLite copy of the translation history, per user. HistoryActivity
+ * reads from here; the server is only asked for entries newer than the
+ * latest synced one. Translations made on this device are stored right
+ * away as pending rows and replaced by the server copy on the next sync.
+ * Those the server never saw, like phrasebook answers, cache hits and long
+ * texts sent in chunks, are stored as local-only rows that no sync replaces.
+ *
+ * Each user's rows are mirrored in a {@link HistorySnapshot} so the history
+ * screen can map them instead of querying and materializing them. New
+ * entries are appended to it; changes that are not appends, like a pending
+ * row replaced by its server copy, drop it to be rebuilt on next use.
+ *
+ * {@link #endSession()} makes a sync or local write begun before it store
+ * nothing, so rows deleted on logout cannot come back.
+ */
+public class HistoryStore extends SQLiteOpenHelper {
+
+    private static final String DB_NAME = "history.db";
+    private static final int DB_VERSION = 1;
+
+    private static final String TABLE = "history";
+    private static final String COL_ID = "id";
+    private static final String COL_USERNAME = "username";
+    private static final String COL_ORIGINAL = "original_text";
+    private static final String COL_TRANSLATED = "translated_text";
+    private static final String COL_TARGET_LANG = "target_lang";
+    private static final String COL_TIMESTAMP = "timestamp";
+    private static final String COL_PENDING = "pending";
+
+    // Values of COL_PENDING
+    private static final int SYNCED = 0;
+    private static final int PENDING = 1;
+    private static final int LOCAL_ONLY = 2;
+
+    private static final String LOCAL_ID_PREFIX = "local-";
+    private static final int SYNC_PAGE_SIZE = 200;
+
+    private static volatile HistoryStore instance;
+
+    private final File snapshotDir;
+    private final Map<String, HistorySnapshot> snapshots = new HashMap<>();
+    // Held around every use of the database so deleteAll cannot close it underneath;
+    // taken before any snapshot's lock
+    private final Object sessionLock = new Object();
+    // Bumped by endSession; writes check it while holding sessionLock
+    private final AtomicInteger generation = new AtomicInteger();
+
+    public static HistoryStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (HistoryStore.class) {
+                if (instance == null) {
+                    instance = new HistoryStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private HistoryStore(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+        this.snapshotDir = new File(context.getFilesDir(), "history-snapshot");
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COL_ID + " TEXT NOT NULL, "
+                + COL_USERNAME + " TEXT NOT NULL, "
+                + COL_ORIGINAL + " TEXT NOT NULL, "
+                + COL_TRANSLATED + " TEXT NOT NULL, "
+                + COL_TARGET_LANG + " TEXT NOT NULL, "
+                + COL_TIMESTAMP + " TEXT NOT NULL, "
+                + COL_PENDING + " INTEGER NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (" + COL_USERNAME + ", " + COL_ID + "))");
+        db.execSQL("CREATE INDEX idx_history_user_time ON " + TABLE
+                + " (" + COL_USERNAME + ", " + COL_TIMESTAMP + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        onCreate(db);
+    }
+
+    /**
+     * Timestamp of the newest entry that came from the server, or null before the first sync
+     */
+    public String getLastSyncedTimestamp(String username) {
+        synchronized (sessionLock) {
+            try (Cursor cursor = getReadableDatabase().rawQuery(
+                    "SELECT MAX(" + COL_TIMESTAMP + ") FROM " + TABLE
+                            + " WHERE " + COL_USERNAME + " = ? AND " + COL_PENDING + " = " + SYNCED,
+                    new String[] { username })) {
+                return cursor.moveToFirst() ? cursor.getString(0) : null;
+            }
+        }
+    }
+
+    /**
+     * Insert or replace entries received from the server. Pending local rows
+     * for the same translation are dropped since the server now has them.
+     *
+     * @param generation {@link #getGeneration()} when the sync started; nothing is stored if it has ended
+     * @return the number of rows that were not already stored
+     */
+    public int upsertFromServer(String username, List<HistoryItem> items, int generation) {
+        HistorySnapshot snapshot = snapshotFor(username);
+        synchronized (sessionLock) {
+            if (generation != this.generation.get()) return 0;
+            synchronized (snapshot) {
+                SQLiteDatabase db = getWritableDatabase();
+                List<HistoryItem> added = new ArrayList<>();
+                int replacedPending = 0;
+                db.beginTransaction();
+                try (SQLiteStatement exists = db.compileStatement("SELECT COUNT(*) FROM " + TABLE
+                        + " WHERE " + COL_USERNAME + " = ? AND " + COL_ID + " = ?")) {
+                    for (HistoryItem item : items) {
+                        exists.bindString(1, username);
+                        exists.bindString(2, item.getId());
+                        if (exists.simpleQueryForLong() == 0) added.add(item);
+
+                        replacedPending += db.delete(TABLE, COL_USERNAME + " = ? AND " + COL_PENDING + " = " + PENDING + " AND "
+                                        + COL_ORIGINAL + " = ? AND " + COL_TRANSLATED + " = ? AND " + COL_TARGET_LANG + " = ?",
+                                new String[] { username, item.getOriginalText(), item.getTranslatedText(), item.getTargetLang() });
+                        db.insertWithOnConflict(TABLE, null, values(username, item, SYNCED), SQLiteDatabase.CONFLICT_REPLACE);
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+
+                if (replacedPending > 0) {
+                    snapshot.delete();
+                } else {
+                    Collections.sort(added, Comparator.comparing(HistoryItem::getTimestamp));
+                    appendToSnapshot(snapshot, added);
+                }
+                return added.size();
+            }
+        }
+    }
+
+    /**
+     * Pull entries newer than the last synced one from the server, page by page.
+     * Call off the main thread.
+     *
+     * @param generation {@link #getGeneration()} when the sync was asked for
+     * @return the number of new rows
+     */
+    public int syncFromServer(TranslationApiClient client, String username, int generation) throws IOException {
+        HistoryPages.Loader remote = HistoryPages.remote(client, username, getLastSyncedTimestamp(username));
+        int added = 0;
+        String cursor = null;
+        do {
+            List<HistoryItem> page = new ArrayList<>();
+            cursor = remote.loadPage(cursor, SYNC_PAGE_SIZE, page::addAll);
+            added += upsertFromServer(username, page, generation);
+        } while (cursor != null);
+        return added;
+    }
+
+    /**
+     * Record a translation made on this device before the server copy is synced
+     *
+     * @param localOnly the server has no copy, so the row is kept as is instead of waiting for one
+     * @param generation {@link #getGeneration()} when the translation was made; nothing is stored if it has ended
+     */
+    public void addLocal(String username, String originalText, String translatedText, String targetLang,
+                         boolean localOnly, int generation) {
+        // The server's "yyyy-MM-dd HH:mm:ss" form, in UTC: timestamps are ordered as plain
+        // strings, so local rows only sort among synced ones if they are written the same way
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.ROOT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        String timestamp = format.format(new Date());
+        HistoryItem item = new HistoryItem(LOCAL_ID_PREFIX + UUID.randomUUID(),
+                originalText, translatedText, targetLang, timestamp);
+        HistorySnapshot snapshot = snapshotFor(username);
+        synchronized (sessionLock) {
+            if (generation != this.generation.get()) return;
+            synchronized (snapshot) {
+                getWritableDatabase().insert(TABLE, null, values(username, item, localOnly ? LOCAL_ONLY : PENDING));
+                appendToSnapshot(snapshot, Collections.singletonList(item));
+            }
+        }
+    }
+
+    public void clear(String username) {
+        HistorySnapshot snapshot = snapshotFor(username);
+        synchronized (sessionLock) {
+            synchronized (snapshot) {
+                getWritableDatabase().delete(TABLE, COL_USERNAME + " = ?", new String[] { username });
+                snapshot.delete();
+            }
+        }
+    }
+
+    /**
+     * Current session, to pass back to {@link #addLocal} and {@link #upsertFromServer}
+     */
+    public int getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Drop every write that was begun before now, e.g. on logout
+     */
+    public void endSession() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Delete every user's history, the database file and the snapshot files
+     * included. Call {@link #endSession()} first so nothing is written back.
+     */
+    public void deleteAll() {
+        synchronized (sessionLock) {
+            synchronized (snapshots) {
+                for (HistorySnapshot snapshot : snapshots.values()) snapshot.delete();
+                File[] files = snapshotDir.listFiles();
+                if (files != null) {
+                    for (File file : files) file.delete();
+                }
+            }
+            File database = new File(getWritableDatabase().getPath());
+            close();
+            // Opened again, empty, on next use
+            SQLiteDatabase.deleteDatabase(database);
+        }
+    }
+
+    /**
+     * The user's history as a mapped snapshot, built from the database first
+     * if there is none. Call off the main thread.
+     */
+    public HistorySnapshot.View snapshot(String username) throws IOException {
+        HistorySnapshot snapshot = snapshotFor(username);
+        synchronized (sessionLock) {
+            synchronized (snapshot) {
+                if (snapshot.exists()) {
+                    try {
+                        return snapshot.view();
+                    } catch (IOException e) {
+                        // Unreadable; rebuilt below
+                        snapshot.delete();
+                    }
+                }
+                try (Cursor cursor = getReadableDatabase().query(TABLE,
+                        new String[] { COL_ID, COL_ORIGINAL, COL_TRANSLATED, COL_TARGET_LANG, COL_TIMESTAMP },
+                        COL_USERNAME + " = ?", new String[] { username },
+                        null, null, COL_TIMESTAMP + " ASC")) {
+                    return snapshot.rewrite(new CursorItems(cursor));
+                }
+            }
+        }
+    }
+
+    private HistorySnapshot snapshotFor(String username) {
+        synchronized (snapshots) {
+            HistorySnapshot snapshot = snapshots.get(username);
+            if (snapshot == null) {
+                snapshot = new HistorySnapshot(snapshotDir, fileName(username));
+                snapshots.put(username, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Append items, oldest first, to the snapshot if there is one. If they
+     * do not all sort after it, or the write fails, it is dropped instead
+     * and rebuilt in timestamp order on next use.
+     */
+    private static void appendToSnapshot(HistorySnapshot snapshot, List<HistoryItem> items) {
+        if (items.isEmpty() || !snapshot.exists()) return;
+        try {
+            HistorySnapshot.View view = snapshot.view();
+            if (view.size() > 0 && items.get(0).getTimestamp().compareTo(view.getNewest(0).getTimestamp()) < 0) {
+                snapshot.delete();
+                return;
+            }
+            snapshot.append(items);
+        } catch (IOException e) {
+            snapshot.delete();
+        }
+    }
+
+    private static String fileName(String username) {
+        try {
+            return URLEncoder.encode(username, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static ContentValues values(String username, HistoryItem item, int pending) {
+        ContentValues values = new ContentValues();
+        values.put(COL_ID, item.getId());
+        values.put(COL_USERNAME, username);
+        values.put(COL_ORIGINAL, item.getOriginalText());
+        values.put(COL_TRANSLATED, item.getTranslatedText());
+        values.put(COL_TARGET_LANG, item.getTargetLang());
+        values.put(COL_TIMESTAMP, item.getTimestamp());
+        values.put(COL_PENDING, pending);
+        return values;
+    }
+
+    /**
+     * Rows of a query on id, original, translated, target language and timestamp, one item at a time
+     */
+    private static class CursorItems implements Iterator<HistoryItem> {
+        private final Cursor cursor;
+        private boolean hasNext;
+
+        CursorItems(Cursor cursor) {
+            this.cursor = cursor;
+            this.hasNext = cursor.moveToFirst();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public HistoryItem next() {
+            if (!hasNext) throw new NoSuchElementException();
+            HistoryItem item = new HistoryItem(cursor.getString(0), cursor.getString(1), cursor.getString(2),
+                    cursor.getString(3), cursor.getString(4));
+            hasNext = cursor.moveToNext();
+            return item;
+        }
+    }
+}
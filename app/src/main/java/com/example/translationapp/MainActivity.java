@@ -24,9 +24,6 @@ import androidx.core.view.WindowInsetsCompat;
 
 import com.google.gson.Gson;
 
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.RequestBody;
 import okhttp3.Response;
 
 public class MainActivity extends AppCompatActivity {
@@ -42,7 +39,7 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         
         // Auto-login if Remember Me is checked
-        if (Config.isRememberMe(this) && Config.getUsername(this) != null) {
+        if (Config.isLoggedIn(this)) {
             startActivity(new Intent(this, TranslationActivity.class));
             finish();
             return;
@@ -96,15 +93,7 @@ public class MainActivity extends AppCompatActivity {
 
             new Thread(() -> {
                 try {
-                    OkHttpClient client = new OkHttpClient();
-                    String json = "{ \"username\": \"" + username + "\", \"password\": \"" + password + "\" }";
-                    RequestBody body = RequestBody.create(json, okhttp3.MediaType.parse("application/json"));
-                    Request request = new Request.Builder()
-                            .url(Config.BASE_URL + "auth/login")
-                            .post(body)
-                            .build();
-
-                    try (Response response = client.newCall(request).execute()) {
+                    try (Response response = TranslationApiClient.getInstance().login(username, password).execute()) {
                         String responseBody = response.body().string();
                         runOnUiThread(() -> {
                             if(response.isSuccessful()) {
@@ -0,0 +1,73 @@
+package com.example.translationapp;
+
+import android.os.Bundle;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+
+import com.google.android.material.button.MaterialButton;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Debug-only screen showing {@link NetworkMetrics} for the shared API client.
+ * Opened by long-pressing the settings button in debuggable builds.
+ */
+public class NetworkMetricsActivity extends AppCompatActivity {
+
+    private TextView tvMetrics;
+    private NetworkMetrics metrics;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_network_metrics);
+
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        setSupportActionBar(toolbar);
+        toolbar.setNavigationOnClickListener(v -> finish());
+
+        tvMetrics = findViewById(R.id.tv_metrics);
+        MaterialButton btnExport = findViewById(R.id.btn_export_metrics);
+        MaterialButton btnReset = findViewById(R.id.btn_reset_metrics);
+
+        metrics = TranslationApiClient.getInstance().getMetrics();
+
+        btnExport.setOnClickListener(v -> export());
+        btnReset.setOnClickListener(v -> {
+            metrics.reset();
+            refresh();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+    }
+
+    private void refresh() {
+        tvMetrics.setText(metrics.formatReport());
+    }
+
+    private void export() {
+        String json = new GsonBuilder().setPrettyPrinting().create().toJson(metrics.toJson());
+        new Thread(() -> {
+            File file = new File(getExternalFilesDir(null), "network-metrics-" + System.currentTimeMillis() + ".json");
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                writer.write(json);
+                runOnUiThread(() -> Toast.makeText(this, "Saved to " + file.getAbsolutePath(), Toast.LENGTH_LONG).show());
+            } catch (IOException e) {
+                runOnUiThread(() -> Toast.makeText(this, "Export failed: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+            }
+        }).start();
+    }
+}
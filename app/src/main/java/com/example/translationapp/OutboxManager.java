@@ -0,0 +1,234 @@
+package com.example.translationapp;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Response;
+
+/**
+ * Process-wide {@link RequestOutbox} for requests made while offline:
+ * translations, clearing history and profile updates. It is flushed when
+ * the default network is validated as reaching the internet, and when
+ * something is queued while it is. A flush that leaves entries behind is
+ * tried again with backoff.
+ * A queued translation that completes goes into the cache and local history,
+ * and listeners are told so they can fill it in on screen.
+ */
+public class OutboxManager {
+
+    public interface TranslationListener {
+        /**
+         * Called on the main thread
+         */
+        void onTranslated(String text, String to, String translation);
+    }
+
+    private static final String TAG = "OutboxManager";
+    private static final int BATCH_SIZE = 8;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long MIN_RETRY_MILLIS = 5_000;
+    private static final long MAX_RETRY_MILLIS = 5 * 60_000L;
+
+    static final String TRANSLATE = "translate";
+    static final String CLEAR_HISTORY = "clear-history";
+    static final String UPDATE_USER = "update-user";
+
+    private static volatile OutboxManager instance;
+
+    private final Context context;
+    private final ConnectivityManager connectivity;
+    private final RequestOutbox outbox;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<TranslationListener> listeners = new CopyOnWriteArrayList<>();
+    private final Runnable retryFlush = this::flush;
+    // Executor thread only
+    private long retryDelayMillis = MIN_RETRY_MILLIS;
+
+    public static OutboxManager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (OutboxManager.class) {
+                if (instance == null) {
+                    instance = new OutboxManager(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private OutboxManager(Context context) {
+        this.context = context;
+        this.outbox = new RequestOutbox(new File(context.getFilesDir(), "outbox"), BATCH_SIZE, MAX_ATTEMPTS);
+
+        // Called right away if a network is already up, which flushes what an earlier run left behind
+        this.connectivity = context.getSystemService(ConnectivityManager.class);
+        connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onCapabilitiesChanged(Network network, NetworkCapabilities capabilities) {
+                if (capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED) && outbox.size() > 0) {
+                    // A new network is worth trying at once, whatever the backoff had reached
+                    mainHandler.removeCallbacks(retryFlush);
+                    executor.execute(() -> retryDelayMillis = MIN_RETRY_MILLIS);
+                    flush();
+                }
+            }
+        });
+    }
+
+    /**
+     * Text only; audio can be fetched on demand once the translation is in
+     */
+    public void enqueueTranslation(String text, String to, String username) throws IOException {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("text", text);
+        params.put("to", to);
+        params.put("username", username);
+        outbox.enqueue(TRANSLATE, params, false);
+        flush();
+    }
+
+    /**
+     * Barrier: translations queued earlier are recorded before the history is cleared
+     */
+    public void enqueueClearHistory(String username) throws IOException {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("username", username);
+        outbox.enqueue(CLEAR_HISTORY, params, true);
+        flush();
+    }
+
+    /**
+     * Barrier, so two queued updates are applied in the order they were made
+     */
+    public void enqueueUpdateUser(String username, String email, String phone) throws IOException {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("username", username);
+        params.put("email", email);
+        params.put("phone", phone);
+        outbox.enqueue(UPDATE_USER, params, true);
+        flush();
+    }
+
+    /**
+     * Forget everything queued, e.g. on logout, so it is not sent for a user who has left
+     */
+    public void clear() {
+        mainHandler.removeCallbacks(retryFlush);
+        outbox.clear();
+    }
+
+    public int pendingCount() {
+        return outbox.size();
+    }
+
+    public void addTranslationListener(TranslationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeTranslationListener(TranslationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Replay the queue in the background; a flush already waiting to run covers this one.
+     * Does nothing without a validated network; the network callback flushes once there is one.
+     */
+    public void flush() {
+        if (!isOnline()) return;
+        if (!flushScheduled.compareAndSet(false, true)) return;
+        executor.execute(() -> {
+            flushScheduled.set(false);
+            try {
+                if (outbox.flush(handler)) {
+                    retryDelayMillis = MIN_RETRY_MILLIS;
+                    return;
+                }
+                Log.d(TAG, outbox.size() + " requests still queued, retrying in " + retryDelayMillis + " ms");
+                mainHandler.removeCallbacks(retryFlush);
+                mainHandler.postDelayed(retryFlush, retryDelayMillis);
+                retryDelayMillis = Math.min(retryDelayMillis * 2, MAX_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Whether the default network is validated as reaching the internet
+     */
+    public boolean isOnline() {
+        NetworkCapabilities capabilities = connectivity.getNetworkCapabilities(connectivity.getActiveNetwork());
+        return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+    }
+
+    private final RequestOutbox.Handler handler = new RequestOutbox.Handler() {
+        @Override
+        public Call newCall(RequestOutbox.Entry entry) {
+            TranslationApiClient client = TranslationApiClient.getInstance();
+            String username = entry.getParam("username");
+            Call call;
+            switch (entry.getType()) {
+                case TRANSLATE:
+                    call = client.translate(entry.getParam("text"), entry.getParam("to"), false, username);
+                    break;
+                case CLEAR_HISTORY:
+                    call = client.clearHistory(username);
+                    break;
+                case UPDATE_USER:
+                    call = client.updateUser(username, entry.getParam("email"), entry.getParam("phone"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown outbox entry " + entry.getType());
+            }
+            return client.replayable(call, entry.getIdempotencyKey());
+        }
+
+        @Override
+        public void onDelivered(RequestOutbox.Entry entry, Response response) throws IOException {
+            String username = entry.getParam("username");
+            switch (entry.getType()) {
+                case TRANSLATE:
+                    String text = entry.getParam("text");
+                    String to = entry.getParam("to");
+                    if (response.body() == null) throw new IOException("Empty response");
+                    String translation = TranslationResponseReader.read(response.body(), null).getTranslation();
+                    if (translation == null) throw new IOException("No translation in response");
+
+                    TranslationCache.getInstance(context.getCacheDir()).put(text, to, false, translation, null);
+                    if (username != null) HistoryRepository.getInstance(context).addLocal(username, text, translation, to);
+                    mainHandler.post(() -> {
+                        for (TranslationListener listener : listeners) listener.onTranslated(text, to, translation);
+                    });
+                    break;
+                case CLEAR_HISTORY:
+                    // Anything synced back before the server caught up is cleared again
+                    HistoryRepository.getInstance(context).clear(username);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void onDropped(RequestOutbox.Entry entry, String reason) {
+            Log.w(TAG, "Dropped queued " + entry.getType() + ": " + reason);
+        }
+    };
+}
@@ -0,0 +1,125 @@
+package com.example.translationapp;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+
+/**
+ * The app's {@link Phrasebook}: the table bundled as an uncompressed asset,
+ * mapped straight out of the APK, or a newer one downloaded into the files
+ * directory. Checks for a new table at most once a day.
+ */
+public class PhrasebookStore {
+
+    private static final String TAG = "PhrasebookStore";
+    private static final String ASSET = "phrasebook.bin";
+    private static final long REFRESH_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static volatile PhrasebookStore instance;
+
+    private final Context context;
+    private final File downloaded;
+    private volatile Phrasebook phrasebook;
+
+    public static PhrasebookStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (PhrasebookStore.class) {
+                if (instance == null) {
+                    instance = new PhrasebookStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private PhrasebookStore(Context context) {
+        this.context = context;
+        this.downloaded = new File(context.getFilesDir(), ASSET);
+        this.phrasebook = load();
+    }
+
+    /**
+     * Local translation of a stock phrase, or null to ask the server
+     */
+    public String lookup(String text, String to) {
+        Phrasebook current = phrasebook;
+        return current != null ? current.lookup(text, to) : null;
+    }
+
+    /**
+     * Download a newer table in the background if the last check was over a day ago
+     */
+    public void refreshIfStale(TranslationApiClient client) {
+        long now = System.currentTimeMillis();
+        if (now - Config.getPhrasebookCheckedAt(context) < REFRESH_INTERVAL_MILLIS) return;
+        new Thread(() -> {
+            try {
+                update(client);
+                Config.setPhrasebookCheckedAt(context, now);
+            } catch (IOException e) {
+                Log.d(TAG, "Phrasebook update failed: " + e.getMessage());
+            }
+        }).start();
+    }
+
+    private synchronized void update(TranslationApiClient client) throws IOException {
+        Phrasebook current = phrasebook;
+        long version = current != null ? current.getVersion() : 0;
+        try (Response response = client.phrasebook(version).execute()) {
+            if (response.code() == 204 || response.code() == 304 || response.code() == 404) return;
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("HTTP " + response.code());
+            }
+
+            File tmp = new File(context.getFilesDir(), ASSET + ".tmp");
+            try (BufferedSink sink = Okio.buffer(Okio.sink(tmp))) {
+                sink.writeAll(response.body().source());
+            }
+            try {
+                if (Phrasebook.verify(tmp) <= version) {
+                    tmp.delete();
+                    return;
+                }
+            } catch (IOException e) {
+                tmp.delete();
+                throw e;
+            }
+            // A mapping of the file being replaced stays valid until it is dropped
+            if (!tmp.renameTo(downloaded)) throw new IOException("Could not store phrasebook");
+            phrasebook = Phrasebook.open(downloaded);
+            Log.d(TAG, "Phrasebook updated to version " + phrasebook.getVersion());
+        }
+    }
+
+    /**
+     * Whichever of the bundled and the downloaded table is newer
+     */
+    private Phrasebook load() {
+        Phrasebook bundled = null;
+        try (AssetFileDescriptor fd = context.getAssets().openFd(ASSET);
+             FileInputStream in = fd.createInputStream()) {
+            bundled = Phrasebook.map(in.getChannel(), fd.getStartOffset(), fd.getLength());
+        } catch (IOException e) {
+            Log.w(TAG, "Bundled phrasebook unavailable", e);
+        }
+
+        if (downloaded.exists()) {
+            try {
+                Phrasebook fresh = Phrasebook.open(downloaded);
+                if (bundled == null || fresh.getVersion() > bundled.getVersion()) return fresh;
+            } catch (IOException e) {
+                downloaded.delete();
+            }
+        }
+        return bundled;
+    }
+}
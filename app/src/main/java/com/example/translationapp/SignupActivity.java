@@ -15,10 +15,6 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.google.gson.Gson;
 
-import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.RequestBody;
 import okhttp3.Response;
 
 public class SignupActivity extends AppCompatActivity {
@@ -258,21 +254,9 @@ public class SignupActivity extends AppCompatActivity {
 
         new Thread(() -> {
             try {
-                OkHttpClient client = new OkHttpClient();
-
-                // Create JSON object using Gson for proper escaping
-                SignupRequest signupRequest = new SignupRequest(username, password, email, number);
-                String json = new Gson().toJson(signupRequest);
-
-                RequestBody body = RequestBody.create(json, MediaType.parse("application/json; charset=utf-8"));
-
-                Request request = new Request.Builder()
-                        .url(Config.BASE_URL + "auth/signup")
-                        .post(body)
-                        .addHeader("Content-Type", "application/json")
-                        .build();
-
-                Response response = client.newCall(request).execute();
+                Response response = TranslationApiClient.getInstance()
+                        .signup(username, password, email, number)
+                        .execute();
                 String responseBody = response.body().string();
 
                 runOnUiThread(() -> {
@@ -359,20 +343,6 @@ public class SignupActivity extends AppCompatActivity {
 
     // Model classes for JSON serialization/deserialization
 
-    private static class SignupRequest {
-        private String username;
-        private String password;
-        private String email;
-        private String phone;
-
-        public SignupRequest(String username, String password, String email, String phone) {
-            this.username = username;
-            this.password = password;
-            this.email = email;
-            this.phone = phone;
-        }
-    }
-
     private static class SignupResponse {
         private String message;
 
@@ -0,0 +1,152 @@
+package com.example.translationapp;
+
+import android.content.Context;
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+import android.speech.tts.Voice;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide native TextToSpeech used for Arabic and Darija. Binding the
+ * engine takes hundreds of milliseconds, so it is started once (from the
+ * splash screen) and kept for the life of the process instead of being
+ * created and shut down with every activity. Phrases can be synthesized to
+ * files so {@link SpeechCache} can replay them without the engine.
+ */
+public class SpeechEngine {
+
+    public interface SynthesisListener {
+        void onDone(File file);
+        void onError();
+    }
+
+    private static volatile SpeechEngine instance;
+
+    private final TextToSpeech textToSpeech;
+    private final List<Runnable> onInitialized = new ArrayList<>();
+    private boolean initialized;
+    private volatile boolean ready;
+    private final Map<String, Synthesis> syntheses = new ConcurrentHashMap<>();
+    private final AtomicLong utteranceIds = new AtomicLong();
+
+    /**
+     * Must first be called on the main thread, which receives the init callback
+     */
+    public static SpeechEngine getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SpeechEngine.class) {
+                if (instance == null) {
+                    instance = new SpeechEngine(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private SpeechEngine(Context context) {
+        textToSpeech = new TextToSpeech(context, this::onInit);
+        textToSpeech.setOnUtteranceProgressListener(new UtteranceProgressListener() {
+            @Override
+            public void onStart(String utteranceId) {}
+
+            @Override
+            public void onDone(String utteranceId) {
+                Synthesis synthesis = syntheses.remove(utteranceId);
+                if (synthesis != null) synthesis.listener.onDone(synthesis.file);
+            }
+
+            @Override
+            public void onError(String utteranceId) {
+                Synthesis synthesis = syntheses.remove(utteranceId);
+                if (synthesis != null) synthesis.listener.onError();
+            }
+        });
+    }
+
+    private void onInit(int status) {
+        boolean ok = false;
+        if (status == TextToSpeech.SUCCESS) {
+            int result = textToSpeech.setLanguage(new Locale("ar"));
+            ok = result != TextToSpeech.LANG_MISSING_DATA && result != TextToSpeech.LANG_NOT_SUPPORTED;
+        }
+
+        List<Runnable> callbacks;
+        synchronized (this) {
+            ready = ok;
+            initialized = true;
+            callbacks = new ArrayList<>(onInitialized);
+            onInitialized.clear();
+        }
+        for (Runnable callback : callbacks) callback.run();
+    }
+
+    /**
+     * Run callback once the engine finished initializing, successfully or not
+     */
+    public void whenInitialized(Runnable callback) {
+        synchronized (this) {
+            if (!initialized) {
+                onInitialized.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * Initialized with Arabic voice data available
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void speak(String text) {
+        textToSpeech.speak(text, TextToSpeech.QUEUE_FLUSH, null, "ArabicTTS");
+    }
+
+    /**
+     * Render text into file instead of speaking it. The listener is called on a binder thread.
+     */
+    public void synthesizeToFile(String text, File file, SynthesisListener listener) {
+        String utteranceId = "synth-" + utteranceIds.incrementAndGet();
+        syntheses.put(utteranceId, new Synthesis(file, listener));
+        if (textToSpeech.synthesizeToFile(text, null, file, utteranceId) != TextToSpeech.SUCCESS) {
+            syntheses.remove(utteranceId);
+            listener.onError();
+        }
+    }
+
+    /**
+     * Language tag of the active voice, part of the cache key for synthesized files
+     */
+    public String getLocaleTag() {
+        Voice voice = textToSpeech.getVoice();
+        return voice != null ? voice.getLocale().toLanguageTag() : "ar";
+    }
+
+    public String getVoiceName() {
+        Voice voice = textToSpeech.getVoice();
+        return voice != null ? voice.getName() : null;
+    }
+
+    public void stop() {
+        textToSpeech.stop();
+    }
+
+    private static class Synthesis {
+        final File file;
+        final SynthesisListener listener;
+
+        Synthesis(File file, SynthesisListener listener) {
+            this.file = file;
+            this.listener = listener;
+        }
+    }
+}
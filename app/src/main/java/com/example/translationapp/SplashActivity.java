@@ -2,13 +2,29 @@ package com.example.translationapp;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import okhttp3.Response;
+
 public class SplashActivity extends AppCompatActivity {
 
-    private static final int SPLASH_DURATION = 2000; // 2 seconds
+    private static final String TAG = "SplashActivity";
+    // Upper bound on the splash: a slow or unreachable server must not hold up the app
+    private static final long MAX_SPLASH_MILLIS = 1500;
+
+    private static final String PHASE_SESSION = "session";
+    private static final String PHASE_CONNECTION = "connection";
+    private static final String PHASE_TTS = "tts";
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private volatile boolean loggedIn;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -17,14 +33,55 @@ public class SplashActivity extends AppCompatActivity {
         // Optional: If you want to show the layout with your logo
         setContentView(R.layout.activity_splash);
 
-        // Use the main looper for the handler
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            // Always go to SignupActivity
-            Intent intent = new Intent(SplashActivity.this, MainActivity.class);
-            startActivity(intent);
+        // Stay on the splash only until the real startup work is done
+        long start = SystemClock.elapsedRealtime();
+        StartupGate gate = new StartupGate((phaseMillis, timedOut) -> runOnUiThread(() -> {
+            logPhases(phaseMillis, timedOut, SystemClock.elapsedRealtime() - start);
+            route();
+        }), PHASE_SESSION, PHASE_CONNECTION, PHASE_TTS);
+        gate.start(timer, MAX_SPLASH_MILLIS);
+
+        // Session lookup: the first SharedPreferences read loads the file from disk
+        new Thread(() -> {
+            loggedIn = Config.isLoggedIn(this);
+            gate.complete(PHASE_SESSION);
+        }).start();
+
+        // Open a pooled connection to the API so the first real request skips DNS, TCP and TLS
+        new Thread(() -> {
+            try (Response response = TranslationApiClient.getInstance().warmUp().execute()) {
+                Log.d(TAG, "Connection warm-up: HTTP " + response.code() + " over " + response.protocol());
+            } catch (IOException e) {
+                Log.w(TAG, "Connection warm-up failed", e);
+            }
+            gate.complete(PHASE_CONNECTION);
+        }).start();
+
+        // Bind the TextToSpeech engine once for the whole process
+        SpeechEngine.getInstance(this).whenInitialized(() -> gate.complete(PHASE_TTS));
+    }
 
-            // Finish Splash so the user can't go back to it
-            finish();
-        }, SPLASH_DURATION);
+    private void logPhases(Map<String, Long> phaseMillis, boolean timedOut, long totalMillis) {
+        for (Map.Entry<String, Long> phase : phaseMillis.entrySet()) {
+            Log.d(TAG, "Startup phase " + phase.getKey() + ": " + phase.getValue() + " ms");
+        }
+        Log.d(TAG, "Startup ready after " + totalMillis + " ms" + (timedOut ? " (timed out)" : ""));
+    }
+
+    private void route() {
+        if (isFinishing() || isDestroyed()) return;
+
+        // Remembered users skip the login screen; if the lookup did not finish, MainActivity checks again
+        Class<?> next = loggedIn ? TranslationActivity.class : MainActivity.class;
+        startActivity(new Intent(SplashActivity.this, next));
+
+        // Finish Splash so the user can't go back to it
+        finish();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        timer.shutdownNow();
     }
-}
\ No newline at end of file
+}
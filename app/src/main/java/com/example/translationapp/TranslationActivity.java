@@ -1,8 +1,10 @@
 package com.example.translationapp;
 
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
-import android.speech.tts.TextToSpeech;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
@@ -18,22 +20,31 @@ import androidx.appcompat.widget.Toolbar;
 
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.android.material.switchmaterial.SwitchMaterial;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
 
-import okhttp3.Call;
-import okhttp3.Callback;
-import okhttp3.HttpUrl;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
 import okhttp3.Response;
-import okhttp3.ResponseBody;
 
 public class TranslationActivity extends AppCompatActivity {
 
+  // Idle time after the last keystroke before a live translation is sent
+  private static final long LIVE_DEBOUNCE_MILLIS = 400;
+  // Never send live translations more often than this
+  private static final long LIVE_MIN_INTERVAL_MILLIS = 1000;
+  // Longer input is translated in chunks of at most this size rather than as one query parameter;
+  // smaller chunks show the first sentence a little sooner but take longer overall
+  private static final int CHUNK_CHARS = 600;
+  // Leaves room under OkHttp's five calls per host for hedges and audio
+  private static final int MAX_CHUNKS_IN_FLIGHT = 4;
+
   EditText inputText;
   AutoCompleteTextView toLang;
   Button btnTranslate, btnHistory;
@@ -41,13 +52,33 @@ public class TranslationActivity extends AppCompatActivity {
   TextView tvResult;
   ProgressBar progressBar;
   ImageButton btnLogout, btnSettings;
+  SwitchMaterial switchLiveTranslate;
 
   private AudioPlayer audioPlayer;
-  private TextToSpeech textToSpeech;
+  private OutboxManager outbox;
+  private TranslationCache translationCache;
+  private PhrasebookStore phrasebook;
+  private final LatestRequestGate requestGate = new LatestRequestGate();
+  private SpeechEngine speechEngine;
+  private SpeechCache speechCache;
+  private AudioCache audioCache;
+  private TranslationAudioLoader audioLoader;
+  private BatchTranslator batchTranslator;
+  private BatchTranslator.Batch currentBatch;
+  private ChunkedTranslator chunkedTranslator;
+  private ChunkedTranslator.Job currentChunks;
+  private LiveTranslateScheduler liveScheduler;
+  private String currentInputText;
   private String currentTranslation;
-  private String currentAudioBase64;
-  private boolean isTtsReady = false;
+  private File currentAudioFile;
+  private boolean isAudioLoading = false;
   private String lastTargetLang = "";
+  // Fills in a translation that was queued while offline, if it is still the one on screen
+  private final OutboxManager.TranslationListener outboxListener = (text, to, translation) -> {
+    if (currentTranslation == null && text.equals(currentInputText) && to.equals(lastTargetLang)) {
+      showTranslation(translation);
+    }
+  };
 
   @Override
   protected void onCreate(Bundle savedInstanceState) {
@@ -67,25 +98,33 @@ public class TranslationActivity extends AppCompatActivity {
     progressBar = findViewById(R.id.progress_bar);
     btnLogout = findViewById(R.id.btn_logout);
     btnSettings = findViewById(R.id.btn_settings);
+    switchLiveTranslate = findViewById(R.id.switch_live_translate);
 
     // Initialize audio player for existing network-based audio
     audioPlayer = new AudioPlayer(this);
-
-    // Initialize Native TextToSpeech for Arabic
-    textToSpeech = new TextToSpeech(this, status -> {
-      if (status == TextToSpeech.SUCCESS) {
-        int result = textToSpeech.setLanguage(new Locale("ar"));
-        if (result == TextToSpeech.LANG_MISSING_DATA || result == TextToSpeech.LANG_NOT_SUPPORTED) {
-          isTtsReady = false;
-        } else {
-          isTtsReady = true;
-        }
-      } else {
-        isTtsReady = false;
-      }
-    });
-
-    String[] languages = new String[] { "Darija", "English", "French", "Spanish", "Arabic" };
+    translationCache = TranslationCache.getInstance(getCacheDir());
+    phrasebook = PhrasebookStore.getInstance(this);
+    phrasebook.refreshIfStale(TranslationApiClient.getInstance());
+    audioCache = AudioCache.getInstance(getCacheDir());
+    audioLoader = new TranslationAudioLoader(TranslationApiClient.getInstance(), audioCache);
+    batchTranslator = new BatchTranslator(TranslationApiClient.getInstance(), translationCache);
+    // Chunks go without the username so they can be hedged; the whole text is kept in local history only
+    chunkedTranslator = new ChunkedTranslator(
+            (chunk, to) -> TranslationApiClient.getInstance().translate(chunk, to, false, null),
+            translationCache, CHUNK_CHARS, MAX_CHUNKS_IN_FLIGHT);
+    outbox = OutboxManager.getInstance(this);
+    outbox.addTranslationListener(outboxListener);
+    new Thread(audioCache::sweepOnce).start();
+
+    // Warm the history in the background so the history screen opens on it
+    String username = Config.getUsername(this);
+    if (username != null) HistoryRepository.getInstance(this).prefetch(username);
+
+    // Native TextToSpeech for Arabic; normally already bound by the splash screen
+    speechEngine = SpeechEngine.getInstance(this);
+    speechCache = SpeechCache.getInstance(getCacheDir());
+
+    String[] languages = new String[] { "Darija", "English", "French", "Spanish", "Arabic", "Darija + French + English" };
     ArrayAdapter<String> adapter = new ArrayAdapter<>(this,
             android.R.layout.simple_dropdown_item_1line, languages);
     toLang.setAdapter(adapter);
@@ -95,6 +134,34 @@ public class TranslationActivity extends AppCompatActivity {
       if (hasFocus)
         toLang.showDropDown();
     });
+    toLang.setOnItemClickListener((parent, view, position, id) -> {
+      // Same text, new language: it has to be sent again
+      liveScheduler.reset();
+      scheduleLiveTranslation();
+    });
+
+    // Translate-as-you-type
+    liveScheduler = new LiveTranslateScheduler(Executors.newSingleThreadScheduledExecutor(),
+            LIVE_DEBOUNCE_MILLIS, LIVE_MIN_INTERVAL_MILLIS);
+    switchLiveTranslate.setChecked(Config.isLiveTranslate(this));
+    switchLiveTranslate.setOnCheckedChangeListener((button, isChecked) -> {
+      Config.setLiveTranslate(this, isChecked);
+      if (isChecked) {
+        scheduleLiveTranslation();
+      } else {
+        liveScheduler.reset();
+      }
+    });
+    inputText.addTextChangedListener(new TextWatcher() {
+      @Override
+      public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+      @Override
+      public void onTextChanged(CharSequence s, int start, int before, int count) {}
+      @Override
+      public void afterTextChanged(Editable s) {
+        scheduleLiveTranslation();
+      }
+    });
 
     btnTranslate.setOnClickListener(v -> {
       String text = inputText.getText().toString().trim();
@@ -110,16 +177,34 @@ public class TranslationActivity extends AppCompatActivity {
         return;
       }
 
-      // Store target language for audio playback logic
-      lastTargetLang = to;
+      List<String> targets = splitTargets(to);
+
+      // Store target language for audio playback logic; with several targets the first one plays
+      lastTargetLang = targets.get(0);
 
       // Reset audio state
-      currentAudioBase64 = null;
+      currentInputText = text;
+      currentTranslation = null;
+      currentAudioFile = null;
       btnPlayAudio.setEnabled(false);
       btnPlayAudio.setAlpha(0.5f);
 
-      // Start translation
-      translateWithAudio(text, to, Config.getUsername(this));
+      // Start translation; anything still in flight for an older tap is superseded
+      long token = requestGate.next();
+      cancelBatch();
+      cancelChunks();
+      liveScheduler.cancel();
+      if (targets.size() > 1) {
+        translateBatch(token, text, targets, Config.getUsername(this));
+      } else if (text.length() > CHUNK_CHARS) {
+        translateChunked(token, text, lastTargetLang, Config.getUsername(this));
+      } else if (switchLiveTranslate.isChecked()) {
+        // Live results are not recorded; a tap sends the text with the username so it lands in history
+        progressBar.setVisibility(View.VISIBLE);
+        requestTranslation(token, text, lastTargetLang, Config.getUsername(this));
+      } else {
+        translateWithAudio(token, text, lastTargetLang, Config.getUsername(this), false);
+      }
     });
 
     // Add history button click listener
@@ -130,20 +215,25 @@ public class TranslationActivity extends AppCompatActivity {
 
     // Play button logic
     btnPlayAudio.setOnClickListener(v -> {
-      String textToSpeak = tvResult.getText().toString().trim();
-      
-      if (textToSpeak.isEmpty() || textToSpeak.equals("Translating...") || textToSpeak.contains("Your translation will appear here")) return;
+      // tvResult may list several languages; speak the one the play button belongs to
+      String textToSpeak = currentTranslation != null ? currentTranslation.trim() : "";
+
+      if (textToSpeak.isEmpty()) return;
 
       String langLower = lastTargetLang.toLowerCase();
       // Treat Darija as Arabic for TTS
       if (langLower.contains("arabic") || langLower.contains("darija")) {
-        if (isTtsReady && textToSpeech != null) {
-          textToSpeech.speak(textToSpeak, TextToSpeech.QUEUE_FLUSH, null, "ArabicTTS");
+        if (speechEngine.isReady()) {
+          speakCached(textToSpeak);
         } else {
           Toast.makeText(this, "Arabic TTS is not ready", Toast.LENGTH_SHORT).show();
         }
-      } else if (currentAudioBase64 != null && !currentAudioBase64.isEmpty()) {
-        audioPlayer.playAudio(currentAudioBase64);
+      } else if (currentAudioFile != null && currentAudioFile.exists()) {
+        audioCache.touch(currentAudioFile);
+        audioPlayer.playAudio(currentAudioFile);
+      } else if (currentTranslation != null) {
+        // Audio is only fetched once the user asks for it
+        loadAudioAndPlay(currentInputText, currentTranslation, lastTargetLang);
       } else {
         Toast.makeText(this, "No audio available for " + lastTargetLang, Toast.LENGTH_SHORT).show();
       }
@@ -157,6 +247,14 @@ public class TranslationActivity extends AppCompatActivity {
         Intent intent = new Intent(TranslationActivity.this, AccountSettingsActivity.class);
         startActivity(intent);
     });
+
+    // Hidden network metrics screen, debug builds only
+    if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+        btnSettings.setOnLongClickListener(v -> {
+            startActivity(new Intent(this, NetworkMetricsActivity.class));
+            return true;
+        });
+    }
   }
 
   private void showLogoutConfirmation() {
@@ -174,63 +272,397 @@ public class TranslationActivity extends AppCompatActivity {
             .show();
   }
 
-  private void translateWithAudio(String text, String to, String username) {
-    progressBar.setVisibility(View.VISIBLE);
-    tvResult.setText("Translating...");
+  /**
+   * Debounced, rate-capped translation of the current input while live mode is on.
+   * Several target languages and long texts are left to the Translate button.
+   */
+  private void scheduleLiveTranslation() {
+    if (!switchLiveTranslate.isChecked()) return;
+    String text = inputText.getText().toString().trim();
+    String to = toLang.getText().toString().trim();
+    if (text.isEmpty() || to.isEmpty() || splitTargets(to).size() > 1 || text.length() > CHUNK_CHARS) {
+      liveScheduler.cancel();
+      return;
+    }
+    liveScheduler.submit(TranslationCache.key(text, to, false),
+            () -> runOnUiThread(() -> startLiveTranslation(text, to)));
+  }
+
+  private void startLiveTranslation(String text, String to) {
+    if (isDestroyed() || !text.equals(inputText.getText().toString().trim())) return;
+
+    lastTargetLang = to;
+    currentInputText = text;
+    currentTranslation = null;
+    currentAudioFile = null;
+    btnPlayAudio.setEnabled(false);
+    btnPlayAudio.setAlpha(0.5f);
+
+    long token = requestGate.next();
+    cancelBatch();
+    cancelChunks();
+    // No username: intermediate text is neither recorded locally nor on the server
+    translateWithAudio(token, text, to, null, true);
+  }
 
-    HttpUrl.Builder urlBuilder = HttpUrl.parse(Config.BASE_URL + "translate").newBuilder();
-    urlBuilder.addQueryParameter("text", text);
-    urlBuilder.addQueryParameter("to", to);
-    
-    String toLower = to.toLowerCase();
-    // Don't request server audio for languages we handle locally with TTS
-    if (!toLower.contains("arabic") && !toLower.contains("darija")) {
-        urlBuilder.addQueryParameter("includeAudio", "true");
+  /**
+   * @param live keep the previous result on screen (usually the translation of a
+   *             prefix of text) instead of replacing it with a placeholder
+   */
+  private void translateWithAudio(long token, String text, String to, String username, boolean live) {
+    // Stock phrases are answered on the device
+    String phrase = phrasebook.lookup(text, to);
+    if (phrase != null) {
+      requestGate.cancelInFlight();
+      currentAudioFile = null;
+      showTranslation(phrase);
+      // A tapped translation is recorded even though the server was not asked
+      if (username != null) HistoryRepository.getInstance(this).addLocalOnly(username, text, phrase, to);
+      return;
     }
-    if (username != null) urlBuilder.addQueryParameter("username", username);
 
-    new OkHttpClient().newCall(new Request.Builder().url(urlBuilder.build()).get().build()).enqueue(new Callback() {
+    progressBar.setVisibility(View.VISIBLE);
+    if (!live) tvResult.setText("Translating...");
+
+    // Serve repeated phrases from the cache without a network round trip
+    new Thread(() -> {
+      TranslationCache.Entry cached = translationCache.get(text, to, false);
+      if (cached != null) {
+        runOnUiThread(() -> {
+          if (!requestGate.isCurrent(token)) return;
+          requestGate.cancelInFlight();
+          currentAudioFile = cached.getAudioFile();
+          showTranslation(cached.getTranslation());
+          if (username != null) {
+            HistoryRepository.getInstance(this).addLocalOnly(username, text, cached.getTranslation(), to);
+          }
+        });
+      } else {
+        requestTranslation(token, text, to, username);
+      }
+    }).start();
+  }
+
+  /**
+   * Text only: audio is requested separately so the translation is not held back by TTS
+   */
+  private void requestTranslation(long token, String text, String to, String username) {
+    // A call sent with a username is recorded on the server; one without is not, so the two never merge
+    String key = TranslationCache.key(text, to, false) + (username != null ? "\u0000" + username : "");
+    requestGate.enqueue(token, key, () -> TranslationApiClient.getInstance().translate(text, to, false, username),
+            new LatestRequestGate.Handler() {
       @Override
-      public void onFailure(Call call, IOException e) {
+      public void onFailure(long token, IOException e) {
+        // Recorded translations are kept for later rather than lost; live ones are simply retyped.
+        // Only a request that never reached the server is queued: one that timed out or was
+        // reset may have been recorded already, and the replay would record it again.
+        forgetLive();
+        boolean offline = !outbox.isOnline();
+        boolean queued = false;
+        if (username != null && requestGate.isCurrent(token) && !isFinishing()
+                && (offline || RetryInterceptor.isConnectFailure(e))) {
+          try {
+            outbox.enqueueTranslation(text, to, username);
+            queued = true;
+          } catch (IOException ignored) {
+          }
+        }
+        String message;
+        if (!queued) {
+          message = "Error: " + e.getMessage();
+        } else if (offline) {
+          message = "You're offline. The translation will appear here once you're back online.";
+        } else {
+          message = "Could not reach the server. The translation will appear here once it is sent.";
+        }
         runOnUiThread(() -> {
+          if (!requestGate.isCurrent(token)) return;
           progressBar.setVisibility(View.GONE);
-          tvResult.setText("Error: " + e.getMessage());
+          tvResult.setText(message);
         });
       }
 
       @Override
-      public void onResponse(Call call, Response response) throws IOException {
-        if (response.isSuccessful() && response.body() != null) {
-          try {
-            JsonObject json = JsonParser.parseString(response.body().string()).getAsJsonObject();
-            String translation = json.get("translation").getAsString();
-            if (json.has("audio")) currentAudioBase64 = json.get("audio").getAsString();
+      public void onResponse(long token, Response response) throws IOException {
+        try (Response r = response) {
+          if (r.isSuccessful() && r.body() != null) {
+            TranslationResponseReader.Result result = TranslationResponseReader.read(r.body(), null);
+            String translation = result.getTranslation();
+            if (translation == null) throw new IOException("No translation in response");
+
+            translationCache.put(text, to, false, translation, null);
+            if (username != null) {
+              HistoryRepository.getInstance(TranslationActivity.this).addLocal(username, text, translation, to);
+            }
 
             runOnUiThread(() -> {
-              progressBar.setVisibility(View.GONE);
-              tvResult.setText(translation);
-              
-              // FORCE ENABLE BUTTON
-              btnPlayAudio.setEnabled(true);
-              btnPlayAudio.setAlpha(1.0f);
+              if (requestGate.isCurrent(token)) showTranslation(translation);
             });
-          } catch (Exception e) {
+          } else {
+            forgetLive();
             runOnUiThread(() -> progressBar.setVisibility(View.GONE));
           }
-        } else {
-            runOnUiThread(() -> progressBar.setVisibility(View.GONE));
+        } catch (Exception e) {
+          forgetLive();
+          runOnUiThread(() -> progressBar.setVisibility(View.GONE));
         }
       }
+
+      /**
+       * Let the same text be sent again once retyped; a failed live run must not count as sent
+       */
+      private void forgetLive() {
+        if (username == null) liveScheduler.forget(TranslationCache.key(text, to, false));
+      }
     });
   }
 
+  /**
+   * "Darija + French + English" or "Darija, French" into separate target languages
+   */
+  private static List<String> splitTargets(String to) {
+    List<String> targets = new ArrayList<>();
+    for (String target : to.split("[+,]")) {
+      String trimmed = target.trim();
+      if (!trimmed.isEmpty() && !targets.contains(trimmed)) targets.add(trimmed);
+    }
+    if (targets.isEmpty()) targets.add(to);
+    return targets;
+  }
+
+  /**
+   * One text into several languages at once; each language is filled in as its result arrives
+   */
+  private void translateBatch(long token, String text, List<String> targets, String username) {
+    progressBar.setVisibility(View.VISIBLE);
+    requestGate.cancelInFlight();
+
+    Map<String, String> results = new LinkedHashMap<>();
+    for (String to : targets) results.put(to, "Translating...");
+    tvResult.setText(formatBatch(results));
+
+    new Thread(() -> {
+      BatchTranslator.Batch batch = batchTranslator.start(Collections.singletonList(text), targets, username,
+              new BatchTranslator.Listener() {
+        @Override
+        public void onResult(String text, String to, String translation, boolean cached) {
+          if (username != null) {
+            HistoryRepository history = HistoryRepository.getInstance(TranslationActivity.this);
+            if (cached) {
+              history.addLocalOnly(username, text, translation, to);
+            } else {
+              history.addLocal(username, text, translation, to);
+            }
+          }
+          runOnUiThread(() -> {
+            if (!requestGate.isCurrent(token)) return;
+            results.put(to, translation);
+            tvResult.setText(formatBatch(results));
+            if (to.equals(lastTargetLang)) enableAudioFor(translation);
+          });
+        }
+
+        @Override
+        public void onFailure(String text, String to, IOException e) {
+          runOnUiThread(() -> {
+            if (!requestGate.isCurrent(token)) return;
+            results.put(to, "Error: " + e.getMessage());
+            tvResult.setText(formatBatch(results));
+          });
+        }
+
+        @Override
+        public void onComplete() {
+          runOnUiThread(() -> {
+            if (requestGate.isCurrent(token)) progressBar.setVisibility(View.GONE);
+          });
+        }
+      });
+
+      runOnUiThread(() -> {
+        if (requestGate.isCurrent(token)) {
+          currentBatch = batch;
+        } else {
+          batch.cancel();
+        }
+      });
+    }).start();
+  }
+
+  private static String formatBatch(Map<String, String> results) {
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<String, String> entry : results.entrySet()) {
+      if (sb.length() > 0) sb.append("\n\n");
+      sb.append(entry.getKey()).append(": ").append(entry.getValue());
+    }
+    return sb.toString();
+  }
+
+  private void cancelBatch() {
+    if (currentBatch != null) {
+      currentBatch.cancel();
+      currentBatch = null;
+    }
+  }
+
+  /**
+   * Long text in sentence-aligned chunks sent side by side; the result fills in as they arrive
+   */
+  private void translateChunked(long token, String text, String to, String username) {
+    progressBar.setVisibility(View.VISIBLE);
+    requestGate.cancelInFlight();
+    tvResult.setText("Translating...");
+
+    new Thread(() -> {
+      ChunkedTranslator.Job job = chunkedTranslator.start(text, to, new ChunkedTranslator.Listener() {
+        @Override
+        public void onProgress(String translation, int done, int total) {
+          runOnUiThread(() -> {
+            if (requestGate.isCurrent(token)) tvResult.setText(translation);
+          });
+        }
+
+        @Override
+        public void onComplete(String translation) {
+          // The chunks went without the username, so the server has no record of the text
+          if (username != null) {
+            HistoryRepository.getInstance(TranslationActivity.this).addLocalOnly(username, text, translation, to);
+          }
+          runOnUiThread(() -> {
+            if (requestGate.isCurrent(token)) showTranslation(translation);
+          });
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+          runOnUiThread(() -> {
+            if (!requestGate.isCurrent(token)) return;
+            progressBar.setVisibility(View.GONE);
+            tvResult.setText("Error: " + e.getMessage());
+          });
+        }
+      });
+
+      runOnUiThread(() -> {
+        if (requestGate.isCurrent(token)) {
+          currentChunks = job;
+        } else {
+          job.cancel();
+        }
+      });
+    }).start();
+  }
+
+  private void cancelChunks() {
+    if (currentChunks != null) {
+      currentChunks.cancel();
+      currentChunks = null;
+    }
+  }
+
+  private void loadAudioAndPlay(String text, String translation, String to) {
+    if (isAudioLoading) return;
+    isAudioLoading = true;
+    progressBar.setVisibility(View.VISIBLE);
+
+    new Thread(() -> {
+      File audioFile = null;
+      try {
+        audioFile = audioLoader.load(text, translation, to);
+        if (audioFile != null) translationCache.put(text, to, false, translation, audioFile);
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+
+      File loaded = audioFile;
+      runOnUiThread(() -> {
+        isAudioLoading = false;
+        progressBar.setVisibility(View.GONE);
+        // Ignore audio for a translation that has since been replaced
+        if (!translation.equals(currentTranslation)) return;
+        if (loaded != null) {
+          currentAudioFile = loaded;
+          audioPlayer.playAudio(loaded);
+        } else {
+          Toast.makeText(this, "No audio available for " + to, Toast.LENGTH_SHORT).show();
+        }
+      });
+    }).start();
+  }
+
+  /**
+   * Replay a phrase synthesized earlier from the cache; otherwise synthesize it
+   * to a file once and play that. Falls back to speaking directly on failure.
+   */
+  private void speakCached(String text) {
+    String locale = speechEngine.getLocaleTag();
+    String voice = speechEngine.getVoiceName();
+
+    new Thread(() -> {
+      File cached = speechCache.get(text, locale, voice);
+      if (cached != null) {
+        runOnUiThread(() -> {
+          if (!isDestroyed()) audioPlayer.playAudio(cached);
+        });
+        return;
+      }
+
+      File temp = speechCache.newTempFile();
+      speechEngine.synthesizeToFile(text, temp, new SpeechEngine.SynthesisListener() {
+        @Override
+        public void onDone(File file) {
+          File stored = null;
+          try {
+            stored = speechCache.commit(file, text, locale, voice);
+          } catch (IOException e) {
+            e.printStackTrace();
+          }
+          File synthesized = stored;
+          runOnUiThread(() -> {
+            if (isDestroyed()) return;
+            if (synthesized != null) {
+              audioPlayer.playAudio(synthesized);
+            } else {
+              speechEngine.speak(text);
+            }
+          });
+        }
+
+        @Override
+        public void onError() {
+          temp.delete();
+          runOnUiThread(() -> {
+            if (!isDestroyed()) speechEngine.speak(text);
+          });
+        }
+      });
+    }).start();
+  }
+
+  private void showTranslation(String translation) {
+    progressBar.setVisibility(View.GONE);
+    tvResult.setText(translation);
+    enableAudioFor(translation);
+  }
+
+  private void enableAudioFor(String translation) {
+    currentTranslation = translation;
+
+    // FORCE ENABLE BUTTON
+    btnPlayAudio.setEnabled(true);
+    btnPlayAudio.setAlpha(1.0f);
+  }
+
   @Override
   protected void onDestroy() {
     super.onDestroy();
+    requestGate.cancelInFlight();
+    cancelBatch();
+    cancelChunks();
+    liveScheduler.shutdown();
+    outbox.removeTranslationListener(outboxListener);
     if (audioPlayer != null) audioPlayer.cleanup();
-    if (textToSpeech != null) {
-      textToSpeech.stop();
-      textToSpeech.shutdown();
-    }
+    // The engine lives for the whole process; only silence it
+    speechEngine.stop();
   }
 }
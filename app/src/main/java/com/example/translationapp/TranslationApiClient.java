@@ -0,0 +1,382 @@
+package com.example.translationapp;
+
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+/**
+ * Single entry point for every endpoint under {@link Config#BASE_URL}.
+ * All calls share one OkHttpClient, so connections, the dispatcher and its
+ * thread pool are reused instead of being rebuilt for every request.
+ */
+public class TranslationApiClient {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    // Raw audio in its own part instead of Base64 inside JSON; JSON stays acceptable
+    private static final String ACCEPT_WITH_AUDIO = "multipart/mixed, application/json;q=0.5";
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static volatile TranslationApiClient instance;
+
+    private final HttpUrl baseUrl;
+    private final OkHttpClient httpClient;
+    private final CircuitBreakerInterceptor circuitBreaker;
+    private final HedgingInterceptor hedging;
+    private final NetworkMetrics metrics = new NetworkMetrics();
+
+    /**
+     * App-wide client pointing at {@link Config#BASE_URL}
+     */
+    public static TranslationApiClient getInstance() {
+        if (instance == null) {
+            synchronized (TranslationApiClient.class) {
+                if (instance == null) {
+                    instance = new Builder(Config.BASE_URL)
+                            .hedging(1, TimeUnit.SECONDS)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private TranslationApiClient(Builder builder) {
+        this.baseUrl = HttpUrl.get(builder.baseUrl);
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+
+        this.circuitBreaker = new CircuitBreakerInterceptor(builder.failureThreshold, builder.openMillis);
+        OkHttpClient base = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(builder.maxIdleConnections,
+                        builder.keepAliveMillis, TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                // HTTP/2 is negotiated over TLS when the server offers it, HTTP/1.1 keep-alive otherwise
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(builder.connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(builder.readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .writeTimeout(builder.writeTimeoutMillis, TimeUnit.MILLISECONDS)
+                .callTimeout(builder.callTimeoutMillis, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(true)
+                .addInterceptor(circuitBreaker)
+                // Set on the base client so hedged copies are measured too
+                .eventListenerFactory(MetricsEventListener.factory(metrics))
+                .build();
+
+        // Outermost first: retry wraps hedging, which wraps the per-endpoint breaker
+        OkHttpClient.Builder client = base.newBuilder();
+        client.interceptors().add(0, new RetryInterceptor(builder.maxAttempts,
+                builder.retryBaseDelayMillis, builder.retryMaxDelayMillis));
+        if (builder.hedgeInitialDelayMillis > 0) {
+            // Hedged copies get their own dispatcher limits so waiting calls cannot starve them
+            Dispatcher hedgeDispatcher = new Dispatcher(dispatcher.executorService());
+            hedgeDispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+            this.hedging = new HedgingInterceptor(base.newBuilder().dispatcher(hedgeDispatcher).build(),
+                    builder.hedgeInitialDelayMillis, builder.hedgeMinDelayMillis);
+            client.interceptors().add(1, hedging);
+        } else {
+            this.hedging = null;
+        }
+        this.httpClient = client.build();
+    }
+
+    /**
+     * Underlying shared client, for callers that need a raw request
+     */
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public HttpUrl getBaseUrl() {
+        return baseUrl;
+    }
+
+    public CircuitBreakerInterceptor getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Null unless the client was built with {@link Builder#hedging}
+     */
+    public HedgingInterceptor getHedging() {
+        return hedging;
+    }
+
+    /**
+     * Timings and byte counts of every call made by this client
+     */
+    public NetworkMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * HEAD request to the base URL. Whatever the status, it leaves a pooled
+     * connection with DNS, TCP and TLS done for the first real call to reuse.
+     */
+    public Call warmUp() {
+        return newCall(new Request.Builder().url(baseUrl).head().build());
+    }
+
+    // ---- Auth ----
+
+    public Call login(String username, String password) {
+        JsonObject json = new JsonObject();
+        json.addProperty("username", username);
+        json.addProperty("password", password);
+        return newCall(new Request.Builder()
+                .url(url("auth/login").build())
+                .post(RequestBody.create(json.toString(), JSON))
+                .build());
+    }
+
+    public Call signup(String username, String password, String email, String phone) {
+        JsonObject json = new JsonObject();
+        json.addProperty("username", username);
+        json.addProperty("password", password);
+        json.addProperty("email", email);
+        json.addProperty("phone", phone);
+        return newCall(new Request.Builder()
+                .url(url("auth/signup").build())
+                .post(RequestBody.create(json.toString(), JSON))
+                .build());
+    }
+
+    public Call getUser(String username) {
+        return newCall(new Request.Builder()
+                .url(userUrl(username).build())
+                .get()
+                .build());
+    }
+
+    /**
+     * Update email and/or phone; empty values are left out of the request
+     */
+    public Call updateUser(String username, String email, String phone) {
+        JsonObject json = new JsonObject();
+        if (email != null && !email.isEmpty()) json.addProperty("email", email);
+        if (phone != null && !phone.isEmpty()) json.addProperty("phone", phone);
+        return newCall(new Request.Builder()
+                .url(userUrl(username).build())
+                .put(RequestBody.create(json.toString(), JSON))
+                .build());
+    }
+
+    public Call changePassword(String username, String oldPassword, String newPassword) {
+        JsonObject json = new JsonObject();
+        json.addProperty("oldPassword", oldPassword);
+        json.addProperty("newPassword", newPassword);
+        return newCall(new Request.Builder()
+                .url(userUrl(username).addPathSegment("password").build())
+                .put(RequestBody.create(json.toString(), JSON))
+                .build());
+    }
+
+    public Call deleteUser(String username, String password) {
+        return newCall(new Request.Builder()
+                .url(userUrl(username).addQueryParameter("password", password).build())
+                .delete()
+                .build());
+    }
+
+    // ---- Translation ----
+
+    /**
+     * With audio, asks for multipart/mixed; read the answer with
+     * {@link TranslationResponseReader#read(okhttp3.ResponseBody, java.io.File)},
+     * which also handles the JSON fallback. Text-only calls may be hedged.
+     */
+    public Call translate(String text, String to, boolean includeAudio, String username) {
+        HttpUrl.Builder url = url("translate")
+                .addQueryParameter("text", text)
+                .addQueryParameter("to", to);
+        if (includeAudio) url.addQueryParameter("includeAudio", "true");
+        HttpUrl anonymous = url.build();
+        if (username != null) url.addQueryParameter("username", username);
+
+        Request request = new Request.Builder()
+                .url(url.build())
+                .header("Accept", includeAudio ? ACCEPT_WITH_AUDIO : "application/json")
+                .get()
+                .build();
+        // The server records history for a username: such a call is not idempotent,
+        // and its hedged copy goes without the username so it is recorded at most once
+        Request hedge = includeAudio ? null : request.newBuilder().url(anonymous).build();
+        return newCall(request.newBuilder()
+                .tag(RequestPolicy.class, RequestPolicy.of(username == null, hedge))
+                .build());
+    }
+
+    /**
+     * Raw MP3 of the given text spoken in the target language (audio/mpeg body)
+     */
+    public Call audio(String text, String to) {
+        HttpUrl url = url("translate/audio")
+                .addQueryParameter("text", text)
+                .addQueryParameter("to", to)
+                .build();
+        return newCall(new Request.Builder().url(url).header("Accept", "audio/mpeg").get().build());
+    }
+
+    public Call history(String username) {
+        return newCall(new Request.Builder()
+                .url(url("translate/history").addQueryParameter("username", username).build())
+                .get()
+                .build());
+    }
+
+    /**
+     * One page of history entries newer than since (null for all of them);
+     * pass the previous page's nextCursor, or null for the first page
+     */
+    public Call history(String username, String since, String cursor, int limit) {
+        HttpUrl.Builder url = url("translate/history")
+                .addQueryParameter("username", username)
+                .addQueryParameter("limit", String.valueOf(limit));
+        if (since != null) url.addQueryParameter("since", since);
+        if (cursor != null) url.addQueryParameter("cursor", cursor);
+        return newCall(new Request.Builder().url(url.build()).get().build());
+    }
+
+    /**
+     * Phrasebook newer than version as application/octet-stream, or 204 when
+     * version is current
+     */
+    public Call phrasebook(long version) {
+        return newCall(new Request.Builder()
+                .url(url("translate/phrasebook").addQueryParameter("version", String.valueOf(version)).build())
+                .header("Accept", "application/octet-stream")
+                .get()
+                .build());
+    }
+
+    public Call clearHistory(String username) {
+        return newCall(new Request.Builder()
+                .url(url("translate/clear-history").addQueryParameter("username", username).build())
+                .get()
+                .build());
+    }
+
+    /**
+     * The same request sent with an Idempotency-Key header. The server applies
+     * a key once however often it arrives, so the request may be retried freely.
+     */
+    public Call replayable(Call call, String idempotencyKey) {
+        Request request = call.request();
+        return newCall(request.newBuilder()
+                .header(IDEMPOTENCY_KEY, idempotencyKey)
+                .tag(RequestPolicy.class, RequestPolicy.of(true, RequestPolicy.hedgeRequest(request)))
+                .build());
+    }
+
+    private Call newCall(Request request) {
+        return httpClient.newCall(request);
+    }
+
+    private HttpUrl.Builder url(String path) {
+        return baseUrl.newBuilder().addPathSegments(path);
+    }
+
+    private HttpUrl.Builder userUrl(String username) {
+        return url("auth/user").addPathSegment(username);
+    }
+
+    public static class Builder {
+        private final String baseUrl;
+        private long connectTimeoutMillis = 10_000;
+        private long readTimeoutMillis = 30_000;
+        private long writeTimeoutMillis = 15_000;
+        private long callTimeoutMillis = 60_000;
+        private int maxIdleConnections = 5;
+        private long keepAliveMillis = TimeUnit.MINUTES.toMillis(5);
+        private int maxRequestsPerHost = 5;
+        private int maxAttempts = 3;
+        private long retryBaseDelayMillis = 250;
+        private long retryMaxDelayMillis = 2_000;
+        private int failureThreshold = 5;
+        private long openMillis = 30_000;
+        private long hedgeInitialDelayMillis;
+        private long hedgeMinDelayMillis = 100;
+
+        public Builder(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public Builder connectTimeout(long timeout, TimeUnit unit) {
+            this.connectTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder readTimeout(long timeout, TimeUnit unit) {
+            this.readTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder writeTimeout(long timeout, TimeUnit unit) {
+            this.writeTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Upper bound for a whole call (connect, write, server time and read); 0 disables it
+         */
+        public Builder callTimeout(long timeout, TimeUnit unit) {
+            this.callTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder keepAlive(int maxIdleConnections, long keepAlive, TimeUnit unit) {
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveMillis = unit.toMillis(keepAlive);
+            return this;
+        }
+
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Attempts per call including the first (1 disables retries), with
+         * exponential backoff starting at baseDelay and capped at maxDelay
+         */
+        public Builder retry(int maxAttempts, long baseDelay, long maxDelay, TimeUnit unit) {
+            this.maxAttempts = maxAttempts;
+            this.retryBaseDelayMillis = unit.toMillis(baseDelay);
+            this.retryMaxDelayMillis = unit.toMillis(maxDelay);
+            return this;
+        }
+
+        /**
+         * Open an endpoint's circuit after failureThreshold consecutive failures, for openDuration
+         */
+        public Builder circuitBreaker(int failureThreshold, long openDuration, TimeUnit unit) {
+            this.failureThreshold = failureThreshold;
+            this.openMillis = unit.toMillis(openDuration);
+            return this;
+        }
+
+        /**
+         * Hedge text-only /translate calls: after the p95 latency, or initialDelay
+         * until enough calls have been timed; off by default
+         */
+        public Builder hedging(long initialDelay, TimeUnit unit) {
+            this.hedgeInitialDelayMillis = unit.toMillis(initialDelay);
+            return this;
+        }
+
+        public TranslationApiClient build() {
+            return new TranslationApiClient(this);
+        }
+    }
+}
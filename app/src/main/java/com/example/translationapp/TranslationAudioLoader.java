@@ -0,0 +1,66 @@
+package com.example.translationapp;
+
+import java.io.File;
+import java.io.IOException;
+
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+
+/**
+ * Fetches the audio for a translation separately from its text. The binary
+ * /translate/audio endpoint is preferred; servers without it get the old
+ * /translate?includeAudio=true call, as multipart if the server offers it and
+ * as Base64 in JSON otherwise, decoded by {@link TranslationResponseReader}.
+ */
+public class TranslationAudioLoader {
+
+    private final TranslationApiClient client;
+    private final AudioCache audioCache;
+    private volatile boolean binaryEndpointMissing;
+
+    public TranslationAudioLoader(TranslationApiClient client, AudioCache audioCache) {
+        this.client = client;
+        this.audioCache = audioCache;
+    }
+
+    /**
+     * Blocking; call off the main thread.
+     *
+     * @return the cached audio file, or null when the server has no audio for this language
+     */
+    public File load(String originalText, String translation, String to) throws IOException {
+        File audioFile = audioCache.newTempFile();
+
+        if (!binaryEndpointMissing) {
+            try (Response response = client.audio(translation, to).execute()) {
+                if (response.isSuccessful() && response.body() != null) {
+                    try (BufferedSink sink = Okio.buffer(Okio.sink(audioFile))) {
+                        sink.writeAll(response.body().source());
+                    } catch (IOException e) {
+                        audioFile.delete();
+                        throw e;
+                    }
+                    return audioCache.commit(audioFile);
+                }
+                if (response.code() != 404 && response.code() != 405 && response.code() != 501) {
+                    throw new IOException("HTTP " + response.code());
+                }
+                binaryEndpointMissing = true;
+            }
+        }
+
+        // No username: this fallback must not add a second history entry
+        try (Response response = client.translate(originalText, to, true, null).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("HTTP " + response.code());
+            }
+            File decoded = TranslationResponseReader.read(response.body(), audioFile).getAudioFile();
+            return decoded != null ? audioCache.commit(decoded) : null;
+        }
+    }
+
+    public boolean isBinaryEndpointMissing() {
+        return binaryEndpointMissing;
+    }
+}
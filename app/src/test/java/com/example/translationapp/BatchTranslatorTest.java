@@ -0,0 +1,141 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class BatchTranslatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private TranslationCache cache;
+    private BatchTranslator translator;
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private final CountDownLatch complete = new CountDownLatch(1);
+
+    private final BatchTranslator.Listener listener = new BatchTranslator.Listener() {
+        @Override
+        public void onResult(String text, String to, String translation, boolean cached) {
+            events.add(to + "=" + translation + (cached ? " (cached)" : ""));
+        }
+
+        @Override
+        public void onFailure(String text, String to, IOException e) {
+            events.add(to + " failed");
+        }
+
+        @Override
+        public void onComplete() {
+            complete.countDown();
+        }
+    };
+
+    /**
+     * Answers "<to>:<text>"; French is slow and Klingon is unknown
+     */
+    private static class LanguageDispatcher extends Dispatcher {
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String to = request.getRequestUrl().queryParameter("to");
+            String text = request.getRequestUrl().queryParameter("text");
+            if ("Klingon".equals(to)) return new MockResponse().setResponseCode(400);
+            MockResponse response = new MockResponse()
+                    .setBody("{\"translation\":\"" + to + ":" + text + "\"}");
+            if ("French".equals(to)) response.setHeadersDelay(500, TimeUnit.MILLISECONDS);
+            return response;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new LanguageDispatcher());
+        server.start();
+        TranslationApiClient client = new TranslationApiClient.Builder(server.url("/api/").toString()).build();
+        cache = new TranslationCache(folder.newFolder("translations"), 1 << 20, 1 << 20, TimeUnit.DAYS.toMillis(1));
+        translator = new BatchTranslator(client, cache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void reportsEachLanguageAsItArrives() throws Exception {
+        translator.start(Collections.singletonList("hello"), Arrays.asList("French", "Darija", "English"),
+                "alice", listener);
+
+        assertTrue(complete.await(5, TimeUnit.SECONDS));
+        assertEquals(3, server.getRequestCount());
+        // French is the slowest, so it must come last even though it was asked for first
+        assertEquals(3, events.size());
+        String[] order = events.toArray(new String[0]);
+        assertEquals("French=French:hello", order[2]);
+        assertTrue(events.contains("Darija=Darija:hello"));
+        assertTrue(events.contains("English=English:hello"));
+    }
+
+    @Test
+    public void servesCachedPairsWithoutRequests() throws Exception {
+        cache.put("hello", "Darija", false, "salam", null);
+
+        translator.start(Collections.singletonList("hello"), Arrays.asList("Darija", "English"), null, listener);
+
+        assertTrue(complete.await(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+        assertEquals("Darija=salam (cached)", events.take());
+        assertEquals("English=English:hello", events.take());
+        assertEquals("English:hello", cache.get("hello", "English", false).getTranslation());
+    }
+
+    @Test
+    public void translatesSeveralTextsAndSkipsDuplicates() throws Exception {
+        translator.start(Arrays.asList("hello", " hello ", "bye"), Collections.singletonList("English"), null, listener);
+
+        assertTrue(complete.await(5, TimeUnit.SECONDS));
+        assertEquals(2, server.getRequestCount());
+        assertTrue(events.contains("English=English:hello"));
+        assertTrue(events.contains("English=English:bye"));
+    }
+
+    @Test
+    public void failedPairDoesNotStopTheOthers() throws Exception {
+        translator.start(Collections.singletonList("hello"), Arrays.asList("Klingon", "English"), null, listener);
+
+        assertTrue(complete.await(5, TimeUnit.SECONDS));
+        assertTrue(events.contains("Klingon failed"));
+        assertTrue(events.contains("English=English:hello"));
+    }
+
+    @Test
+    public void cancelStopsCallbacks() throws Exception {
+        BatchTranslator.Batch batch = translator.start(Collections.singletonList("hello"),
+                Collections.singletonList("French"), null, listener);
+        batch.cancel();
+
+        assertFalse(complete.await(1, TimeUnit.SECONDS));
+        assertTrue(events.isEmpty());
+        assertTrue(batch.isCancelled());
+    }
+}
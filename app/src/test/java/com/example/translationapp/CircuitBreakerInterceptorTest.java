@@ -0,0 +1,105 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static com.example.translationapp.FaultInjectingDispatcher.Fault.*;
+import static org.junit.Assert.*;
+
+public class CircuitBreakerInterceptorTest {
+
+    private static final String HISTORY = "/api/translate/history";
+
+    private MockWebServer server;
+    private final FaultInjectingDispatcher faults = new FaultInjectingDispatcher(0);
+    private TranslationApiClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(faults);
+        server.start();
+        client = new TranslationApiClient.Builder(server.url("/api/").toString())
+                .retry(1, 0, 0, TimeUnit.MILLISECONDS)
+                .circuitBreaker(3, 300, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private CircuitBreakerInterceptor.State historyState() {
+        return client.getCircuitBreaker().getState("GET", HISTORY);
+    }
+
+    private void failHistory(int times) throws Exception {
+        for (int i = 0; i < times; i++) client.history("sara").execute().close();
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailuresAndFailsFast() throws Exception {
+        faults.inject(HISTORY, UNAVAILABLE, UNAVAILABLE, UNAVAILABLE);
+        failHistory(3);
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, historyState());
+
+        try {
+            client.history("sara").execute();
+            fail("Expected the open circuit to reject the call");
+        } catch (CircuitOpenException expected) {
+            // no request reached the server
+        }
+        assertEquals(3, faults.hits(HISTORY));
+
+        // Other endpoints have their own circuit
+        try (Response response = client.getUser("sara").execute()) {
+            assertEquals(200, response.code());
+        }
+    }
+
+    @Test
+    public void successResetsFailureCount() throws Exception {
+        faults.inject(HISTORY, UNAVAILABLE, UNAVAILABLE);
+        failHistory(3);
+        faults.inject(HISTORY, UNAVAILABLE, UNAVAILABLE);
+        failHistory(2);
+
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, historyState());
+    }
+
+    @Test
+    public void successfulTrialClosesCircuit() throws Exception {
+        faults.inject(HISTORY, UNAVAILABLE, UNAVAILABLE, UNAVAILABLE);
+        failHistory(3);
+        Thread.sleep(350);
+
+        try (Response response = client.history("sara").execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, historyState());
+    }
+
+    @Test
+    public void failedTrialReopensCircuit() throws Exception {
+        faults.inject(HISTORY, UNAVAILABLE, UNAVAILABLE, UNAVAILABLE, UNAVAILABLE);
+        failHistory(3);
+        Thread.sleep(350);
+
+        failHistory(1);
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, historyState());
+        assertEquals(4, faults.hits(HISTORY));
+        try {
+            client.history("sara").execute();
+            fail("Expected the reopened circuit to reject the call");
+        } catch (CircuitOpenException expected) {
+            assertEquals(4, faults.hits(HISTORY));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.translationapp;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * Stand-in server that misbehaves on purpose. Each path can be given a
+ * script of faults to play, one per request, before it answers normally
+ * with {"translation":"ok"}.
+ */
+class FaultInjectingDispatcher extends Dispatcher {
+
+    enum Fault { UNAVAILABLE, BAD_GATEWAY, DISCONNECT, SLOW }
+
+    private final Map<String, Deque<Fault>> scripts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final long slowMillis;
+
+    FaultInjectingDispatcher(long slowMillis) {
+        this.slowMillis = slowMillis;
+    }
+
+    void inject(String path, Fault... faults) {
+        scripts.computeIfAbsent(path, key -> new ArrayDeque<>()).addAll(Arrays.asList(faults));
+    }
+
+    int hits(String path) {
+        AtomicInteger count = hits.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getRequestUrl().encodedPath();
+        hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+
+        Deque<Fault> script = scripts.get(path);
+        Fault fault;
+        synchronized (this) {
+            fault = script != null ? script.poll() : null;
+        }
+        MockResponse ok = new MockResponse().setBody("{\"translation\":\"ok\"}");
+        if (fault == null) return ok;
+        switch (fault) {
+            case UNAVAILABLE:
+                return new MockResponse().setResponseCode(503);
+            case BAD_GATEWAY:
+                return new MockResponse().setResponseCode(502);
+            case DISCONNECT:
+                return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START);
+            default:
+                return ok.setHeadersDelay(slowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.example.translationapp.FaultInjectingDispatcher.Fault.*;
+import static org.junit.Assert.*;
+
+public class HedgingInterceptorTest {
+
+    private static final String TRANSLATE = "/api/translate";
+
+    private MockWebServer server;
+    private final FaultInjectingDispatcher faults = new FaultInjectingDispatcher(3000);
+    private TranslationApiClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(faults);
+        server.start();
+        client = new TranslationApiClient.Builder(server.url("/api/").toString())
+                .retry(1, 0, 0, TimeUnit.MILLISECONDS)
+                .hedging(200, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void slowTranslateIsHedged() throws Exception {
+        faults.inject(TRANSLATE, SLOW);
+
+        long start = System.nanoTime();
+        try (Response response = client.translate("hello", "French", false, "sara").execute()) {
+            assertEquals("{\"translation\":\"ok\"}", response.body().string());
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("took " + millis + " ms", millis >= 200 && millis < 2000);
+        assertEquals(2, faults.hits(TRANSLATE));
+        assertEquals(1, client.getHedging().getHedgesSent());
+
+        RecordedRequest original = server.takeRequest();
+        RecordedRequest hedge = server.takeRequest();
+        assertEquals("sara", original.getRequestUrl().queryParameter("username"));
+        // The copy must not record a second history entry
+        assertNull(hedge.getRequestUrl().queryParameter("username"));
+        assertEquals("hello", hedge.getRequestUrl().queryParameter("text"));
+    }
+
+    @Test
+    public void failedHedgeDoesNotWin() throws Exception {
+        FaultInjectingDispatcher slowThenFailing = new FaultInjectingDispatcher(600);
+        server.setDispatcher(slowThenFailing);
+        slowThenFailing.inject(TRANSLATE, SLOW, UNAVAILABLE);
+
+        try (Response response = client.translate("hello", "French", false, "sara").execute()) {
+            assertEquals(200, response.code());
+            assertEquals("{\"translation\":\"ok\"}", response.body().string());
+        }
+        assertEquals(2, slowThenFailing.hits(TRANSLATE));
+        assertEquals(1, client.getHedging().getHedgesSent());
+    }
+
+    @Test
+    public void recordingOriginalFinishesWhenHedgeWins() throws Exception {
+        faults.inject(TRANSLATE, SLOW);
+        CountDownLatch originalEnded = new CountDownLatch(1);
+        AtomicBoolean originalCanceled = new AtomicBoolean();
+        OkHttpClient copies = new OkHttpClient.Builder()
+                .eventListener(new EventListener() {
+                    @Override
+                    public void canceled(Call call) {
+                        if (isOriginal(call)) originalCanceled.set(true);
+                    }
+
+                    @Override
+                    public void callEnd(Call call) {
+                        if (isOriginal(call)) originalEnded.countDown();
+                    }
+                })
+                .build();
+        OkHttpClient hedged = new OkHttpClient.Builder()
+                .addInterceptor(new HedgingInterceptor(copies, 200, 100))
+                .build();
+        Request hedge = new Request.Builder().url(server.url(TRANSLATE + "?text=hello")).build();
+        Request original = new Request.Builder().url(server.url(TRANSLATE + "?text=hello&username=sara"))
+                .tag(RequestPolicy.class, RequestPolicy.of(false, hedge))
+                .build();
+
+        try (Response response = hedged.newCall(original).execute()) {
+            assertNull(response.request().url().queryParameter("username"));
+        }
+
+        // The original carries the username, so it still has to reach the history
+        assertTrue(originalEnded.await(5, TimeUnit.SECONDS));
+        assertFalse(originalCanceled.get());
+    }
+
+    private static boolean isOriginal(Call call) {
+        return call.request().url().queryParameter("username") != null;
+    }
+
+    @Test
+    public void fastTranslateIsNotHedged() throws Exception {
+        client.translate("hello", "French", false, "sara").execute().close();
+
+        assertEquals(1, faults.hits(TRANSLATE));
+        assertEquals(0, client.getHedging().getHedgesSent());
+    }
+
+    @Test
+    public void translateWithAudioIsNotHedged() throws Exception {
+        FaultInjectingDispatcher slowOnce = new FaultInjectingDispatcher(400);
+        server.setDispatcher(slowOnce);
+        slowOnce.inject(TRANSLATE, SLOW);
+
+        client.translate("hello", "French", true, null).execute().close();
+
+        assertEquals(1, slowOnce.hits(TRANSLATE));
+        assertEquals(0, client.getHedging().getHedgesSent());
+    }
+
+    @Test
+    public void hedgeDelayFollowsObservedLatency() throws Exception {
+        HedgingInterceptor hedging = client.getHedging();
+        assertEquals(200, hedging.hedgeDelayMillis());
+
+        for (int i = 0; i < 25; i++) client.translate("hello " + i, "French", false, null).execute().close();
+
+        // Local calls take a few ms, so the p95 is clamped to the minimum delay
+        assertEquals(100, hedging.hedgeDelayMillis());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pages through a stand-in history server that serves offset cursors.
+ */
+public class HistoryPagesTest {
+
+    private static final int HISTORY_SIZE = 120;
+
+    private MockWebServer server;
+    private TranslationApiClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new PagedHistoryDispatcher());
+        server.start();
+        client = new TranslationApiClient.Builder(server.url("/api/").toString()).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void followsCursorsUntilTheyRunOut() throws Exception {
+        HistoryPages.Loader remote = HistoryPages.remote(client, "sara", null);
+        List<HistoryItem> loaded = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            cursor = remote.loadPage(cursor, 50, loaded::addAll);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(HISTORY_SIZE, loaded.size());
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            assertEquals(String.valueOf(i), loaded.get(i).getId());
+        }
+        server.takeRequest();
+        assertEquals("50", server.takeRequest().getRequestUrl().queryParameter("cursor"));
+    }
+
+    @Test
+    public void remoteLoaderAsksOnlyForNewerEntries() throws Exception {
+        List<HistoryItem> items = new ArrayList<>();
+        String next = HistoryPages.remote(client, "sara", "2025-11-29T10:00:00")
+                .loadPage(null, 50, items::addAll);
+
+        assertEquals("50", next);
+        assertEquals(50, items.size());
+        HttpUrl url = server.takeRequest().getRequestUrl();
+        assertEquals("2025-11-29T10:00:00", url.queryParameter("since"));
+        assertEquals("50", url.queryParameter("limit"));
+    }
+
+    private static class PagedHistoryDispatcher extends Dispatcher {
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            HttpUrl url = request.getRequestUrl();
+            String cursor = url.queryParameter("cursor");
+            int offset = cursor == null ? 0 : Integer.parseInt(cursor);
+            int limit = Integer.parseInt(url.queryParameter("limit"));
+            int end = Math.min(offset + limit, HISTORY_SIZE);
+
+            StringBuilder json = new StringBuilder("{\"history\":[");
+            for (int i = offset; i < end; i++) {
+                if (i > offset) json.append(',');
+                json.append("{\"id\":\"").append(i).append("\",\"originalText\":\"hello ").append(i)
+                        .append("\",\"translatedText\":\"salam ").append(i)
+                        .append("\",\"targetLang\":\"Darija\",\"timestamp\":\"2025-11-29 10:00:00\"}");
+            }
+            json.append(']');
+            if (end < HISTORY_SIZE) json.append(",\"nextCursor\":\"").append(end).append('"');
+            json.append('}');
+            return new MockResponse().setBody(json.toString());
+        }
+    }
+}
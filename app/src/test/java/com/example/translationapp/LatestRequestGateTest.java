@@ -0,0 +1,94 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class LatestRequestGateTest {
+
+    private MockWebServer server;
+    private TranslationApiClient client;
+    private final LatestRequestGate gate = new LatestRequestGate();
+    private final BlockingQueue<String> delivered = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new TranslationApiClient.Builder(server.url("/api/").toString()).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void newerRequestCancelsOlder() throws Exception {
+        server.enqueue(new MockResponse().setBody("old").setHeadersDelay(2, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody("new"));
+
+        long first = gate.next();
+        gate.enqueue(first, "fr|hello", () -> client.translate("hello", "French", false, null), handler());
+        server.takeRequest();
+
+        long second = gate.next();
+        assertFalse(gate.isCurrent(first));
+        gate.enqueue(second, "fr|bye", () -> client.translate("bye", "French", false, null), handler());
+
+        assertEquals(second + ":new", delivered.poll(5, TimeUnit.SECONDS));
+        assertNull(delivered.poll(2500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void identicalRequestsAreCoalesced() throws Exception {
+        server.enqueue(new MockResponse().setBody("salam").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        long first = gate.next();
+        gate.enqueue(first, "darija|hello", () -> client.translate("hello", "Darija", false, null), handler());
+        long second = gate.next();
+        gate.enqueue(second, "darija|hello", () -> client.translate("hello", "Darija", false, null), handler());
+
+        // One call, answered to the latest token only
+        assertEquals(second + ":salam", delivered.poll(5, TimeUnit.SECONDS));
+        assertNull(delivered.poll(500, TimeUnit.MILLISECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void staleTokenIsNeverSent() throws Exception {
+        long stale = gate.next();
+        gate.next();
+        gate.enqueue(stale, "en|hi", () -> client.translate("hi", "English", false, null), handler());
+
+        assertNull(delivered.poll(300, TimeUnit.MILLISECONDS));
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private LatestRequestGate.Handler handler() {
+        return new LatestRequestGate.Handler() {
+            @Override
+            public void onResponse(long token, Response response) throws IOException {
+                try (Response r = response) {
+                    delivered.add(token + ":" + r.body().string());
+                }
+            }
+
+            @Override
+            public void onFailure(long token, IOException e) {
+                delivered.add(token + ":error " + e);
+            }
+        };
+    }
+}
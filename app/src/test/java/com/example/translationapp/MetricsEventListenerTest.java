@@ -0,0 +1,113 @@
+package com.example.translationapp;
+
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks what {@link TranslationApiClient} records in its {@link NetworkMetrics}.
+ */
+public class MetricsEventListenerTest {
+
+    private MockWebServer server;
+    private TranslationApiClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new TranslationApiClient.Builder(server.url("/translation-service/api/").toString()).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void endpointCollapsesUsername() {
+        Request request = new Request.Builder()
+                .url(server.url("/translation-service/api/auth/user/sara/password"))
+                .build();
+        assertEquals("GET /translation-service/api/auth/user/{username}/password",
+                MetricsEventListener.endpointOf(request));
+    }
+
+    @Test
+    public void recordsPhasesAndBytesPerEndpoint() throws Exception {
+        String body = "{\"translation\":\"salam\"}";
+        server.enqueue(new MockResponse().setBody(body).setHeadersDelay(50, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody(body));
+
+        for (int i = 0; i < 2; i++) {
+            try (Response response = client.translate("hello", "Darija", false, null).execute()) {
+                response.body().string();
+            }
+        }
+
+        String endpoint = "GET /translation-service/api/translate";
+        NetworkMetrics metrics = client.getMetrics();
+        // Second call reused the connection, so only one connect sample
+        assertEquals(1, phaseCount(metrics, endpoint, NetworkMetrics.CONNECT));
+        assertEquals(2, phaseCount(metrics, endpoint, NetworkMetrics.SERVER));
+        assertEquals(2, phaseCount(metrics, endpoint, NetworkMetrics.DOWNLOAD));
+        assertTrue(metrics.percentiles(endpoint, NetworkMetrics.SERVER)[2] >= 50);
+        assertTrue(metrics.percentiles(endpoint, NetworkMetrics.TOTAL)[2] >= 50);
+
+        JsonObject stats = metrics.toJson().getAsJsonArray("endpoints").get(0).getAsJsonObject();
+        assertEquals(endpoint, stats.get("endpoint").getAsString());
+        assertEquals(2, stats.get("calls").getAsLong());
+        assertEquals(0, stats.get("failures").getAsLong());
+        assertTrue(stats.get("bytesSent").getAsLong() > 0);
+        assertTrue(stats.get("bytesReceived").getAsLong() > 2L * body.length());
+    }
+
+    @Test
+    public void failedCallsAreCounted() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+        try (Response response = client.getUser("sara").execute()) {
+            response.body().string();
+        }
+        server.shutdown();
+        try {
+            client.getUser("sara").execute().close();
+            fail();
+        } catch (Exception expected) {
+        }
+
+        String endpoint = "GET /translation-service/api/auth/user/{username}";
+        JsonObject stats = client.getMetrics().toJson().getAsJsonArray("endpoints").get(0).getAsJsonObject();
+        assertEquals(endpoint, stats.get("endpoint").getAsString());
+        assertEquals(2, stats.get("calls").getAsLong());
+        assertEquals(1, stats.get("failures").getAsLong());
+        assertTrue(client.getMetrics().formatReport().contains(endpoint));
+    }
+
+    @Test
+    public void resetClearsEverything() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+        try (Response response = client.getUser("sara").execute()) {
+            response.body().string();
+        }
+        client.getMetrics().reset();
+        assertEquals(0, client.getMetrics().toJson().getAsJsonArray("endpoints").size());
+    }
+
+    private static long phaseCount(NetworkMetrics metrics, String endpoint, String phase) {
+        JsonObject stats = metrics.toJson().getAsJsonArray("endpoints").get(0).getAsJsonObject();
+        JsonObject phases = stats.getAsJsonObject("phasesMillis");
+        assertEquals(endpoint, stats.get("endpoint").getAsString());
+        return phases.has(phase) ? phases.getAsJsonObject(phase).get("count").getAsLong() : 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static com.example.translationapp.FaultInjectingDispatcher.Fault.*;
+import static org.junit.Assert.*;
+
+public class RetryInterceptorTest {
+
+    private static final String HISTORY = "/api/translate/history";
+    private static final String TRANSLATE = "/api/translate";
+    private static final String LOGIN = "/api/auth/login";
+
+    private MockWebServer server;
+    private final FaultInjectingDispatcher faults = new FaultInjectingDispatcher(0);
+    private TranslationApiClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(faults);
+        server.start();
+        client = new TranslationApiClient.Builder(server.url("/api/").toString())
+                .retry(3, 10, 50, TimeUnit.MILLISECONDS)
+                .circuitBreaker(100, 1, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void idempotentCallRecoversFromTransientFailures() throws Exception {
+        faults.inject(HISTORY, UNAVAILABLE, BAD_GATEWAY);
+
+        try (Response response = client.history("sara").execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(3, faults.hits(HISTORY));
+    }
+
+    @Test
+    public void idempotentCallRecoversFromDisconnect() throws Exception {
+        faults.inject(HISTORY, DISCONNECT);
+
+        try (Response response = client.history("sara").execute()) {
+            assertEquals(200, response.code());
+        }
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws Exception {
+        faults.inject(HISTORY, UNAVAILABLE, UNAVAILABLE, UNAVAILABLE, UNAVAILABLE);
+
+        try (Response response = client.history("sara").execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(3, faults.hits(HISTORY));
+    }
+
+    @Test
+    public void translateWithUsernameIsNotRepeatedAfterBadGateway() throws Exception {
+        // The server may have recorded history before the gateway failed
+        faults.inject(TRANSLATE, BAD_GATEWAY);
+
+        try (Response response = client.translate("hello", "French", false, "sara").execute()) {
+            assertEquals(502, response.code());
+        }
+        assertEquals(1, faults.hits(TRANSLATE));
+    }
+
+    @Test
+    public void anonymousTranslateIsRetried() throws Exception {
+        faults.inject(TRANSLATE, BAD_GATEWAY);
+
+        try (Response response = client.translate("hello", "French", false, null).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(2, faults.hits(TRANSLATE));
+    }
+
+    @Test
+    public void postIsRetriedOnlyWhenServerDeclined() throws Exception {
+        faults.inject(LOGIN, BAD_GATEWAY);
+        client.login("sara", "secret").execute().close();
+        assertEquals(1, faults.hits(LOGIN));
+
+        faults.inject(LOGIN, UNAVAILABLE);
+        try (Response response = client.login("sara", "secret").execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(3, faults.hits(LOGIN));
+    }
+
+    @Test
+    public void backoffGrowsAndIsCapped() {
+        RetryInterceptor retry = new RetryInterceptor(10, 100, 1000);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(retry.backoffMillis(1) <= 100);
+            assertTrue(retry.backoffMillis(3) <= 400);
+            assertTrue(retry.backoffMillis(30) <= 1000);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs {@link TranslationApiClient} against a local MockWebServer.
+ */
+public class TranslationApiClientTest {
+
+    private MockWebServer server;
+    private TranslationApiClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new TranslationApiClient.Builder(server.url("/translation-service/api/").toString()).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void connectionIsReusedAcrossCalls() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"translation\":\"salam\"}"));
+        server.enqueue(new MockResponse().setBody("{\"history\":[]}"));
+        server.enqueue(new MockResponse().setBody("{\"email\":\"a@b.c\"}"));
+
+        try (Response response = client.translate("hello", "Darija", false, "sara").execute()) {
+            response.body().string();
+        }
+        try (Response response = client.history("sara").execute()) {
+            response.body().string();
+        }
+        try (Response response = client.getUser("sara").execute()) {
+            response.body().string();
+        }
+
+        // sequenceNumber counts requests on the same socket
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertEquals(2, server.takeRequest().getSequenceNumber());
+        assertEquals(1, client.getHttpClient().connectionPool().connectionCount());
+    }
+
+    @Test
+    public void translateBuildsQuery() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        client.translate("good morning", "French", true, "sara").execute().close();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("GET", request.getMethod());
+        assertEquals("/translation-service/api/translate", request.getRequestUrl().encodedPath());
+        assertEquals("good morning", request.getRequestUrl().queryParameter("text"));
+        assertEquals("French", request.getRequestUrl().queryParameter("to"));
+        assertEquals("true", request.getRequestUrl().queryParameter("includeAudio"));
+        assertEquals("sara", request.getRequestUrl().queryParameter("username"));
+    }
+
+    @Test
+    public void warmUpLeavesPooledConnection() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        client.warmUp().execute().close();
+        assertEquals(1, client.getHttpClient().connectionPool().idleConnectionCount());
+        client.translate("hello", "French", false, null).execute().close();
+
+        RecordedRequest warmUp = server.takeRequest();
+        assertEquals("HEAD", warmUp.getMethod());
+        assertEquals("/translation-service/api/", warmUp.getPath());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+    }
+
+    @Test
+    public void loginEscapesJsonBody() throws Exception {
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        client.login("sara", "pa\"ss").execute().close();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/translation-service/api/auth/login", request.getPath());
+        assertEquals("{\"username\":\"sara\",\"password\":\"pa\\\"ss\"}", request.getBody().readUtf8());
+    }
+
+    @Test
+    public void userEndpointsUsePathSegments() throws Exception {
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+
+        client.changePassword("sara", "old", "new").execute().close();
+        client.deleteUser("sara", "secret").execute().close();
+
+        RecordedRequest change = server.takeRequest();
+        assertEquals("PUT", change.getMethod());
+        assertEquals("/translation-service/api/auth/user/sara/password", change.getPath());
+
+        RecordedRequest delete = server.takeRequest();
+        assertEquals("DELETE", delete.getMethod());
+        assertEquals("/translation-service/api/auth/user/sara?password=secret", delete.getPath());
+    }
+
+    @Test
+    public void replayableCallCarriesKeyAndMayBeRetried() throws Exception {
+        // A recorded translation is not retried on 502 on its own; with a key it is
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setBody("{\"translation\":\"salam\"}"));
+
+        Call call = client.replayable(client.translate("hello", "Darija", false, "sara"), "key-1");
+        try (Response response = call.execute()) {
+            assertEquals(200, response.code());
+        }
+
+        assertEquals(2, server.getRequestCount());
+        RecordedRequest first = server.takeRequest();
+        assertEquals("key-1", first.getHeader("Idempotency-Key"));
+        assertEquals("sara", first.getRequestUrl().queryParameter("username"));
+        assertEquals("key-1", server.takeRequest().getHeader("Idempotency-Key"));
+    }
+}
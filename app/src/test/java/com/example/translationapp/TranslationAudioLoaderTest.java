@@ -0,0 +1,102 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Base64;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import static org.junit.Assert.*;
+
+public class TranslationAudioLoaderTest {
+
+    private static final byte[] CLIP = { 'I', 'D', '3', 4, 0, 0, 0, 0, 1, 2, 3 };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private TranslationAudioLoader loader;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        TranslationApiClient client = new TranslationApiClient.Builder(server.url("/api/").toString()).build();
+        loader = new TranslationAudioLoader(client, new AudioCache(new File(folder.getRoot(), "audio"), 1 << 20));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void prefersBinaryEndpoint() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "audio/mpeg")
+                .setBody(new Buffer().write(CLIP)));
+
+        File audio = loader.load("good morning", "bonjour", "French");
+
+        assertArrayEquals(CLIP, Files.readAllBytes(audio.toPath()));
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/api/translate/audio", request.getRequestUrl().encodedPath());
+        assertEquals("bonjour", request.getRequestUrl().queryParameter("text"));
+        assertEquals("French", request.getRequestUrl().queryParameter("to"));
+    }
+
+    @Test
+    public void fallsBackToJsonAudioWithoutBinaryEndpoint() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        String json = "{\"translation\":\"bonjour\",\"audio\":\"" + Base64.getEncoder().encodeToString(CLIP) + "\"}";
+        server.enqueue(new MockResponse().setBody(json));
+        server.enqueue(new MockResponse().setBody(json));
+
+        assertArrayEquals(CLIP, Files.readAllBytes(loader.load("good morning", "bonjour", "French").toPath()));
+        assertTrue(loader.isBinaryEndpointMissing());
+
+        server.takeRequest();
+        RecordedRequest fallback = server.takeRequest();
+        assertEquals("/api/translate", fallback.getRequestUrl().encodedPath());
+        assertEquals("true", fallback.getRequestUrl().queryParameter("includeAudio"));
+        assertNull(fallback.getRequestUrl().queryParameter("username"));
+
+        // The missing endpoint is remembered, and the same clip lands in the same file
+        File first = loader.load("good morning", "bonjour", "French");
+        assertEquals("/api/translate", server.takeRequest().getRequestUrl().encodedPath());
+        assertEquals(1, first.getParentFile().listFiles().length);
+    }
+
+    @Test
+    public void fallbackNegotiatesMultipart() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        MultipartBody multipart = new MultipartBody.Builder("b0undary")
+                .setType(MultipartBody.MIXED)
+                .addPart(RequestBody.create("{\"translation\":\"bonjour\"}", MediaType.parse("application/json")))
+                .addPart(RequestBody.create(CLIP, MediaType.parse("audio/mpeg")))
+                .build();
+        Buffer body = new Buffer();
+        multipart.writeTo(body);
+        server.enqueue(new MockResponse().setHeader("Content-Type", multipart.contentType()).setBody(body));
+
+        assertArrayEquals(CLIP, Files.readAllBytes(loader.load("good morning", "bonjour", "French").toPath()));
+
+        server.takeRequest();
+        String accept = server.takeRequest().getHeader("Accept");
+        assertTrue(accept, accept.startsWith("multipart/mixed"));
+        assertTrue(accept, accept.contains("application/json"));
+    }
+}
@@ -0,0 +1,35 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// JMH benchmarks for the :core hot paths. Run with ./gradlew :benchmark:jmh
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    implementation(project(":core"))
+    // Local stand-in server for the chunked translation benchmark
+    implementation("com.squareup.okhttp3:mockwebserver:4.11.0")
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
+
+// Retained heap of the history models, which JMH does not measure
+tasks.register<JavaExec>("historyFootprint") {
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.example.translationapp.benchmark.HistoryFootprint")
+    args("10000")
+}
@@ -0,0 +1,98 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.TranslationResponseReader;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Getting the clip of a /translate response onto disk: the old String,
+ * JsonParser and Base64 byte[] path, the streaming decode in
+ * {@link TranslationResponseReader}, and the raw multipart part.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AudioDecodeBenchmark {
+
+    private static final String BOUNDARY = "bench-boundary";
+
+    @Param({ "16384", "262144", "1048576" })
+    public int audioBytes;
+
+    private byte[] jsonBody;
+    private byte[] multipartBody;
+    private File audioFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] audio = Fixtures.audio(audioBytes);
+        jsonBody = Fixtures.translateJson(audio);
+
+        String head = "--" + BOUNDARY + "\r\nContent-Type: application/json\r\n\r\n"
+                + new String(Fixtures.translateJson(null), StandardCharsets.UTF_8)
+                + "\r\n--" + BOUNDARY + "\r\nContent-Type: audio/mpeg\r\n\r\n";
+        String tail = "\r\n--" + BOUNDARY + "--\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.UTF_8);
+        byte[] tailBytes = tail.getBytes(StandardCharsets.UTF_8);
+        multipartBody = new byte[headBytes.length + audio.length + tailBytes.length];
+        System.arraycopy(headBytes, 0, multipartBody, 0, headBytes.length);
+        System.arraycopy(audio, 0, multipartBody, headBytes.length, audio.length);
+        System.arraycopy(tailBytes, 0, multipartBody, headBytes.length + audio.length, tailBytes.length);
+
+        audioFile = File.createTempFile("bench-audio", ".mp3");
+    }
+
+    @TearDown
+    public void tearDown() {
+        audioFile.delete();
+    }
+
+    @Benchmark
+    public File stringAndByteArray() throws IOException {
+        JsonObject json = JsonParser.parseString(new String(jsonBody, StandardCharsets.UTF_8)).getAsJsonObject();
+        byte[] audio = Base64.getDecoder().decode(json.get("audio").getAsString());
+        try (OutputStream out = new FileOutputStream(audioFile)) {
+            out.write(audio);
+        }
+        return audioFile;
+    }
+
+    @Benchmark
+    public File streamingBase64() throws IOException {
+        return TranslationResponseReader.read(new ByteArrayInputStream(jsonBody), audioFile).getAudioFile();
+    }
+
+    @Benchmark
+    public File multipartRaw() throws IOException {
+        // Streamed like a socket; a fully buffered body makes the boundary scan quadratic
+        MediaType type = MediaType.get("multipart/mixed; boundary=" + BOUNDARY);
+        BufferedSource source = Okio.buffer(Okio.source(new ByteArrayInputStream(multipartBody)));
+        try (ResponseBody body = ResponseBody.create(source, type, multipartBody.length)) {
+            return TranslationResponseReader.read(body, audioFile).getAudioFile();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.ChunkedTranslator;
+import com.example.translationapp.TranslationResponseReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * A pasted document against a local stand-in for /translate whose answer
+ * takes a fixed round trip plus time per character, as a model's does.
+ * One call for the whole text is compared with chunks sent side by side:
+ * how long until the first sentence can be shown, and until all of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChunkedTranslateBenchmark {
+
+    private static final long ROUND_TRIP_MILLIS = 40;
+    private static final double MILLIS_PER_CHAR = 0.1;
+
+    @Param({"1", "4"})
+    public int maxInFlight;
+
+    @Param({"300", "600"})
+    public int maxChunkChars;
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private ChunkedTranslator translator;
+    private String document;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String text = request.getRequestUrl().queryParameter("text");
+                Thread.sleep(ROUND_TRIP_MILLIS + (long) (text.length() * MILLIS_PER_CHAR));
+                return new MockResponse().setBody("{\"translation\":\"" + text.length() + "\"}");
+            }
+        });
+        server.start();
+        client = new OkHttpClient();
+        translator = new ChunkedTranslator(this::call, null, maxChunkChars, maxInFlight);
+
+        // About 2,000 characters in 6 paragraphs, the size of a pasted article
+        StringBuilder sb = new StringBuilder();
+        for (int p = 0; p < 6; p++) {
+            if (p > 0) sb.append("\n\n");
+            for (int s = 0; s < 5; s++) {
+                if (s > 0) sb.append(' ');
+                sb.append("Sentence ").append(s).append(" of paragraph ").append(p)
+                        .append(" says something worth translating here.");
+            }
+        }
+        document = sb.toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.dispatcher().executorService().shutdown();
+        server.shutdown();
+    }
+
+    private okhttp3.Call call(String text, String to) {
+        HttpUrl url = server.url("/translate").newBuilder()
+                .addQueryParameter("text", text)
+                .addQueryParameter("to", to)
+                .build();
+        return client.newCall(new Request.Builder().url(url).build());
+    }
+
+    /**
+     * Baseline: the first sentence arrives with the rest
+     */
+    @Benchmark
+    public String wholeText() throws IOException {
+        try (Response response = call(document, "French").execute()) {
+            return TranslationResponseReader.read(response.body(), null).getTranslation();
+        }
+    }
+
+    @Benchmark
+    public String chunkedFirstSentence() throws Exception {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        ChunkedTranslator.Job job = translator.start(document, "French", new Listener(first) {
+            @Override
+            public void onProgress(String text, int done, int total) {
+                if (!text.startsWith(ChunkedTranslator.PENDING)) first.complete(text);
+            }
+        });
+        try {
+            return first.get(10, TimeUnit.SECONDS);
+        } finally {
+            job.cancel();
+        }
+    }
+
+    @Benchmark
+    public String chunkedTotal() throws Exception {
+        CompletableFuture<String> done = new CompletableFuture<>();
+        translator.start(document, "French", new Listener(done));
+        return done.get(10, TimeUnit.SECONDS);
+    }
+
+    private static class Listener implements ChunkedTranslator.Listener {
+        private final CompletableFuture<String> result;
+
+        Listener(CompletableFuture<String> result) {
+            this.result = result;
+        }
+
+        @Override
+        public void onProgress(String text, int done, int total) {
+        }
+
+        @Override
+        public void onComplete(String translation) {
+            result.complete(translation);
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
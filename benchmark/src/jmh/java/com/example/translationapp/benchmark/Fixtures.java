@@ -0,0 +1,80 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.HistoryItem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic inputs shaped like real server responses
+ */
+final class Fixtures {
+
+    private static final String[] WORDS = {
+            "hello", "how", "are", "you", "where", "is", "the", "station", "thank", "much",
+            "salam", "labas", "chokran", "bzaf", "fin", "kayna", "lmahatta", "bonjour", "merci", "gare"
+    };
+    private static final String[] TARGETS = { "Darija", "French", "English" };
+
+    private Fixtures() {}
+
+    static List<HistoryItem> historyItems(int count) {
+        Random random = new Random(42);
+        List<HistoryItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new HistoryItem(
+                    String.valueOf(i),
+                    sentence(random),
+                    sentence(random),
+                    TARGETS[i % TARGETS.length],
+                    "2024-05-" + (1 + i % 28) + "T10:00:00Z"));
+        }
+        return items;
+    }
+
+    static byte[] historyJson(int count) {
+        StringBuilder sb = new StringBuilder("{\"history\":[");
+        List<HistoryItem> items = historyItems(count);
+        for (int i = 0; i < items.size(); i++) {
+            HistoryItem item = items.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":\"").append(item.getId())
+                    .append("\",\"originalText\":\"").append(item.getOriginalText())
+                    .append("\",\"translatedText\":\"").append(item.getTranslatedText())
+                    .append("\",\"targetLang\":\"").append(item.getTargetLang())
+                    .append("\",\"timestamp\":\"").append(item.getTimestamp())
+                    .append("\"}");
+        }
+        sb.append("],\"nextCursor\":null}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] audio(int bytes) {
+        byte[] audio = new byte[bytes];
+        new Random(7).nextBytes(audio);
+        return audio;
+    }
+
+    /**
+     * /translate response with the clip Base64-encoded in "audio", or none when audio is null
+     */
+    static byte[] translateJson(byte[] audio) {
+        String json = "{\"translation\":\"salam, labas 3lik?\",\"from\":\"English\",\"to\":\"Darija\""
+                + (audio != null ? ",\"audio\":\"" + Base64.getEncoder().encodeToString(audio) + "\"" : "")
+                + "}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sentence(Random random) {
+        int length = 3 + random.nextInt(10);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
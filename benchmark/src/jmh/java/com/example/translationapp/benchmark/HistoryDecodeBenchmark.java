@@ -0,0 +1,66 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.HistoryDecoder;
+import com.example.translationapp.HistoryItem;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /translate/history decoding: the old String + JsonParser tree path against
+ * the streaming {@link HistoryDecoder} the app ships.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistoryDecodeBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int items;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = Fixtures.historyJson(items);
+    }
+
+    @Benchmark
+    public List<HistoryItem> jsonParserTree() {
+        JsonObject json = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+        JsonArray historyArray = json.getAsJsonArray("history");
+        List<HistoryItem> result = new ArrayList<>(historyArray.size());
+        for (int i = 0; i < historyArray.size(); i++) {
+            JsonObject item = historyArray.get(i).getAsJsonObject();
+            result.add(new HistoryItem(
+                    item.get("id").getAsString(),
+                    item.get("originalText").getAsString(),
+                    item.get("translatedText").getAsString(),
+                    item.get("targetLang").getAsString(),
+                    item.get("timestamp").getAsString()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<HistoryItem> streamingDecoder() throws IOException {
+        return HistoryDecoder.decodeAll(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.HistoryItem;
+import com.example.translationapp.HistorySearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * History search as typed into HistoryActivity: the original lower-case
+ * "contains" loop against {@link HistorySearchIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistoryFilterBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int items;
+
+    // Common prefix, a selective phrase, and a miss
+    @Param({ "sal", "where is the", "zzz" })
+    public String query;
+
+    private List<HistoryItem> history;
+    private HistorySearchIndex index;
+
+    @Setup
+    public void setUp() {
+        history = Fixtures.historyItems(items);
+        index = new HistorySearchIndex();
+        index.addAll(history);
+    }
+
+    @Benchmark
+    public List<HistoryItem> linearScan() {
+        String lowerQuery = query.toLowerCase();
+        List<HistoryItem> result = new ArrayList<>();
+        for (HistoryItem item : history) {
+            if (item.getOriginalText().toLowerCase().contains(lowerQuery) ||
+                    item.getTranslatedText().toLowerCase().contains(lowerQuery)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<HistoryItem> trigramIndex() {
+        return index.search(query, () -> false);
+    }
+}
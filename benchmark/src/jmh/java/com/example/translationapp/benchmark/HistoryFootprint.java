@@ -0,0 +1,74 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.HistoryColumns;
+import com.example.translationapp.HistoryItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Retained heap of a history held as HistoryItem objects against the same
+ * history in {@link HistoryColumns}. JMH measures time and allocation, not
+ * what stays reachable, so this measures it directly from the used heap
+ * after full collections. Run with ./gradlew :benchmark:historyFootprint
+ */
+public final class HistoryFootprint {
+
+    private static final int ROUNDS = 5;
+
+    private HistoryFootprint() {}
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        List<HistoryItem> source = Fixtures.historyItems(items);
+
+        long objects = retained(source, HistoryFootprint::copyItems);
+        long columns = retained(source, list -> {
+            HistoryColumns c = new HistoryColumns();
+            c.addAll(list);
+            c.trimToSize();
+            return c;
+        });
+        System.out.printf("%d items: HistoryItem list %,d bytes (%d per item), HistoryColumns %,d bytes (%d per item), %.0f%% less%n",
+                items, objects, objects / items, columns, columns / items, 100.0 * (objects - columns) / objects);
+    }
+
+    /**
+     * Fresh strings, as a decoder would produce, so nothing is shared with the source
+     */
+    private static List<HistoryItem> copyItems(List<HistoryItem> source) {
+        List<HistoryItem> copy = new ArrayList<>(source.size());
+        for (HistoryItem item : source) {
+            copy.add(new HistoryItem(fresh(item.getId()), fresh(item.getOriginalText()),
+                    fresh(item.getTranslatedText()), fresh(item.getTargetLang()), fresh(item.getTimestamp())));
+        }
+        return copy;
+    }
+
+    private static String fresh(String value) {
+        // new String(String) would share the original's backing array
+        return new String(value.toCharArray());
+    }
+
+    /**
+     * Median growth of the used heap across rounds of building one structure
+     */
+    private static long retained(List<HistoryItem> source, Function<List<HistoryItem>, Object> build) {
+        long[] sizes = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = usedAfterGc();
+            Object kept = build.apply(source);
+            sizes[round] = usedAfterGc() - before;
+            if (kept.hashCode() == 42) System.out.print("");
+        }
+        java.util.Arrays.sort(sizes);
+        return sizes[ROUNDS / 2];
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
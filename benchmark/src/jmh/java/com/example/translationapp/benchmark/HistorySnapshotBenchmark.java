@@ -0,0 +1,65 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.HistoryItem;
+import com.example.translationapp.HistorySnapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening HistoryActivity on a stored history: mapping the snapshot and
+ * decoding the first screen of rows, against materializing every item
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistorySnapshotBenchmark {
+
+    private static final int SCREEN_ROWS = 20;
+
+    @Param({ "1000", "10000", "100000" })
+    public int items;
+
+    private File directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bench-history").toFile();
+        new HistorySnapshot(directory, "user").rewrite(Fixtures.historyItems(items).iterator());
+    }
+
+    @TearDown
+    public void tearDown() {
+        new HistorySnapshot(directory, "user").delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public void openFirstScreen(Blackhole blackhole) throws IOException {
+        HistorySnapshot.View view = new HistorySnapshot(directory, "user").view();
+        for (int i = 0; i < SCREEN_ROWS; i++) blackhole.consume(view.getNewest(i));
+    }
+
+    @Benchmark
+    public List<HistoryItem> openAll() throws IOException {
+        HistorySnapshot.View view = new HistorySnapshot(directory, "user").view();
+        List<HistoryItem> all = new ArrayList<>(view.size());
+        for (int i = 0; i < view.size(); i++) all.add(view.getNewest(i));
+        return all;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.Phrasebook;
+import com.example.translationapp.PhrasebookWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phrasebook lookups against a memory-mapped table, hit and miss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PhrasebookBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int phrases;
+
+    private File file;
+    private Phrasebook phrasebook;
+    private String hit;
+
+    @Setup
+    public void setUp() throws IOException {
+        PhrasebookWriter writer = new PhrasebookWriter();
+        for (int i = 0; i < phrases; i++) {
+            writer.add("where is the station number " + i, "Darija", "fin kayna lmahatta " + i + "?");
+        }
+        file = File.createTempFile("bench-phrasebook", ".bin");
+        writer.write(file, 1);
+        phrasebook = Phrasebook.open(file);
+        hit = "Where is the station number " + (phrases / 2) + "?";
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public String lookupHit() {
+        return phrasebook.lookup(hit, "Darija");
+    }
+
+    @Benchmark
+    public String lookupMiss() {
+        return phrasebook.lookup("where is the market", "Darija");
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.translationapp.benchmark;
+
+import com.example.translationapp.TranslationResponseReader;
+import com.google.gson.JsonParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text-only /translate responses, the common case for live and batch
+ * translation, where per-call overhead matters more than throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TranslateResponseBenchmark {
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = Fixtures.translateJson(null);
+    }
+
+    @Benchmark
+    public String jsonParserTree() {
+        return JsonParser.parseString(new String(body, StandardCharsets.UTF_8))
+                .getAsJsonObject().get("translation").getAsString();
+    }
+
+    @Benchmark
+    public String responseReader() throws IOException {
+        return TranslationResponseReader.read(new ByteArrayInputStream(body), null).getTranslation();
+    }
+}
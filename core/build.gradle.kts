@@ -0,0 +1,30 @@
+plugins {
+    `java-library`
+}
+
+// Android-free logic shared by :app and :benchmark
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    api("com.squareup.okhttp3:okhttp:4.11.0")
+    api("com.google.code.gson:gson:2.10.1")
+    testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.11.0")
+}
+
+// Packs the bundled phrase table into the binary asset mapped by Phrasebook
+tasks.register<JavaExec>("packPhrasebook") {
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.translationapp.PhrasebookWriter")
+    args(
+        rootProject.file("app/src/main/phrasebook/phrasebook.tsv"),
+        rootProject.file("app/src/main/assets/phrasebook.bin")
+    )
+}
@@ -0,0 +1,167 @@
+package com.example.translationapp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content-addressed store for decoded audio clips. Each clip is written to
+ * a temp file, then renamed to the SHA-256 of its bytes, so a replayed or
+ * repeated clip maps to one file. Files are evicted least recently used
+ * first once the byte budget is exceeded.
+ */
+public class AudioCache {
+
+    private static final long DEFAULT_MAX_BYTES = 25L * 1024 * 1024;
+    private static final String SUFFIX = ".mp3";
+    private static final String TEMP_SUFFIX = ".part";
+    // Temp files younger than this may still be being written
+    private static final long ORPHAN_AGE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static volatile AudioCache instance;
+
+    private final File directory;
+    private final long maxBytes;
+    private boolean swept;
+
+    public static AudioCache getInstance(File cacheDir) {
+        if (instance == null) {
+            synchronized (AudioCache.class) {
+                if (instance == null) {
+                    instance = new AudioCache(new File(cacheDir, "audio"), DEFAULT_MAX_BYTES);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public AudioCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Fresh file to decode or download a clip into before {@link #commit(File)}
+     */
+    public File newTempFile() {
+        if (!directory.exists()) directory.mkdirs();
+        return new File(directory, "clip_" + System.nanoTime() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Move a fully written temp file to its content-addressed name.
+     *
+     * @return the cached file, or null if tempFile was empty
+     */
+    public File commit(File tempFile) throws IOException {
+        if (!tempFile.exists() || tempFile.length() == 0) {
+            tempFile.delete();
+            return null;
+        }
+
+        File target = new File(directory, sha256(tempFile) + SUFFIX);
+        synchronized (this) {
+            if (target.exists()) {
+                // Same clip is already cached
+                tempFile.delete();
+                touch(target);
+            } else if (!tempFile.renameTo(target)) {
+                tempFile.delete();
+                throw new IOException("Could not store audio clip");
+            }
+            trim(target);
+        }
+        return target;
+    }
+
+    /**
+     * Mark a clip as recently used
+     */
+    public void touch(File file) {
+        if (file != null) file.setLastModified(System.currentTimeMillis());
+    }
+
+    /**
+     * Once per process: drop abandoned temp files and anything that is not a
+     * cached clip, including the audio*.mp3 temp files older versions left
+     * directly in the cache dir, then enforce the budget. Call off the main thread.
+     */
+    public void sweepOnce() {
+        synchronized (this) {
+            if (swept) return;
+            swept = true;
+        }
+
+        File cacheDir = directory.getParentFile();
+        File[] legacy = cacheDir != null
+                ? cacheDir.listFiles((dir, name) -> name.startsWith("audio") && name.endsWith(SUFFIX))
+                : null;
+        if (legacy != null) {
+            for (File file : legacy) file.delete();
+        }
+
+        long now = System.currentTimeMillis();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                boolean temp = file.getName().endsWith(TEMP_SUFFIX);
+                if (temp ? now - file.lastModified() > ORPHAN_AGE_MILLIS : !isClipName(file.getName())) {
+                    file.delete();
+                }
+            }
+        }
+
+        synchronized (this) {
+            trim(null);
+        }
+    }
+
+    private void trim(File keep) {
+        File[] files = directory.listFiles((dir, name) -> isClipName(name));
+        if (files == null) return;
+
+        long total = 0;
+        for (File file : files) total += file.length();
+        if (total <= maxBytes) return;
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= maxBytes) break;
+            if (file.equals(keep)) continue;
+            long length = file.length();
+            if (file.delete()) total -= length;
+        }
+    }
+
+    private static boolean isClipName(String name) {
+        // 64 hex chars + ".mp3"
+        if (name.length() != 64 + SUFFIX.length() || !name.endsWith(SUFFIX)) return false;
+        for (int i = 0; i < 64; i++) {
+            if (Character.digit(name.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    private static String sha256(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) digest.update(buffer, 0, n);
+        }
+        StringBuilder sb = new StringBuilder(64);
+        for (byte b : digest.digest()) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+}
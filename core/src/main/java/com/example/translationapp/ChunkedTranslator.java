@@ -0,0 +1,219 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+/**
+ * Translates a long text as several shorter /translate calls. The text is
+ * split by {@link TextChunker}; chunks are requested in order with at most
+ * maxInFlight calls running at once, so the first sentences come back
+ * after one short round trip instead of the whole text's, and no single
+ * URL grows past what servers accept. Chunks already in
+ * {@link TranslationCache} are not requested at all.
+ *
+ * Progress is reported with the translations so far in their original
+ * order, whichever chunk finished last.
+ */
+public class ChunkedTranslator {
+
+    public interface CallFactory {
+        /**
+         * A text-only /translate call for one chunk
+         */
+        Call newCall(String text, String to);
+    }
+
+    public interface Listener {
+        /**
+         * Another chunk has been translated
+         *
+         * @param text finished chunks in order, with {@link #PENDING} standing in for any run still missing
+         */
+        void onProgress(String text, int done, int total);
+        void onComplete(String translation);
+        /**
+         * A chunk failed; the rest have been cancelled
+         */
+        void onFailure(IOException e);
+    }
+
+    public static final String PENDING = "…";
+
+    private final CallFactory calls;
+    private final TranslationCache cache;
+    private final TextChunker chunker;
+    private final int maxInFlight;
+
+    /**
+     * @param cache may be null to always ask the server
+     */
+    public ChunkedTranslator(CallFactory calls, TranslationCache cache, int maxChunkChars, int maxInFlight) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be positive");
+        this.calls = calls;
+        this.cache = cache;
+        this.chunker = new TextChunker(maxChunkChars);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Start translating text into to. Cache lookups may touch the disk, so
+     * call it off the main thread; listener methods run on that thread or on
+     * OkHttp's threads, one at a time and in order.
+     */
+    public Job start(String text, String to, Listener listener) {
+        List<TextChunker.Chunk> chunks = chunker.split(text);
+        Job job = new Job(chunks, to, listener);
+        for (int i = 0; i < chunks.size(); i++) {
+            TranslationCache.Entry cached = cache != null ? cache.get(chunks.get(i).getText(), to, false) : null;
+            if (cached != null) job.deliver(i, cached.getTranslation(), null);
+        }
+        job.sendMore();
+        return job;
+    }
+
+    /**
+     * Handle on a running translation; cancelling it stops all calls and callbacks
+     */
+    public class Job {
+        private final List<TextChunker.Chunk> chunks;
+        private final String to;
+        private final Listener listener;
+        private final String[] translations;
+        private final List<Call> running = new ArrayList<>();
+        private int next;
+        private int done;
+        private boolean cancelled;
+
+        Job(List<TextChunker.Chunk> chunks, String to, Listener listener) {
+            this.chunks = chunks;
+            this.to = to;
+            this.listener = listener;
+            this.translations = new String[chunks.size()];
+            if (chunks.isEmpty()) listener.onComplete("");
+        }
+
+        public int getChunkCount() {
+            return chunks.size();
+        }
+
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+            }
+            cancelRunning();
+        }
+
+        private void cancelRunning() {
+            List<Call> inFlight;
+            synchronized (this) {
+                inFlight = new ArrayList<>(running);
+                running.clear();
+            }
+            for (Call call : inFlight) call.cancel();
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Send the next chunks not yet translated, up to the in-flight limit
+         */
+        private void sendMore() {
+            while (true) {
+                int index;
+                Call call;
+                synchronized (this) {
+                    while (next < chunks.size() && translations[next] != null) next++;
+                    if (cancelled || next == chunks.size() || running.size() >= maxInFlight) return;
+                    index = next++;
+                    call = calls.newCall(chunks.get(index).getText(), to);
+                    running.add(call);
+                }
+                enqueue(index, call);
+            }
+        }
+
+        private void enqueue(int index, Call call) {
+            String text = chunks.get(index).getText();
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call c, IOException e) {
+                    finish(c, index, null, e);
+                }
+
+                @Override
+                public void onResponse(Call c, Response response) {
+                    try (Response r = response) {
+                        if (!r.isSuccessful() || r.body() == null) {
+                            throw new IOException("Translate failed with HTTP " + r.code());
+                        }
+                        String translation = TranslationResponseReader.read(r.body(), null).getTranslation();
+                        if (translation == null) throw new IOException("No translation in response");
+                        if (cache != null) cache.put(text, to, false, translation, null);
+                        finish(c, index, translation, null);
+                    } catch (IOException e) {
+                        finish(c, index, null, e);
+                    }
+                }
+            });
+        }
+
+        private void finish(Call call, int index, String translation, IOException error) {
+            synchronized (this) {
+                running.remove(call);
+            }
+            deliver(index, translation, error);
+            if (error != null) {
+                cancelRunning();
+            } else {
+                sendMore();
+            }
+        }
+
+        /**
+         * Record one chunk's outcome and tell the listener. Holding the lock
+         * keeps callbacks in order, so a later progress never shows less.
+         */
+        private synchronized void deliver(int index, String translation, IOException error) {
+            if (cancelled) return;
+            if (error != null) {
+                cancelled = true;
+                listener.onFailure(error);
+                return;
+            }
+            translations[index] = translation;
+            done++;
+            if (done == chunks.size()) {
+                listener.onComplete(assemble());
+            } else {
+                listener.onProgress(assemble(), done, chunks.size());
+            }
+        }
+
+        private String assemble() {
+            StringBuilder sb = new StringBuilder();
+            boolean gap = false;
+            for (int i = 0; i < chunks.size(); i++) {
+                String translation = translations[i];
+                if (translation == null) {
+                    // One marker for a run of missing chunks
+                    if (gap) continue;
+                    gap = true;
+                    translation = PENDING;
+                } else {
+                    gap = false;
+                }
+                sb.append(translation);
+                if (i < chunks.size() - 1) sb.append(chunks.get(i).getSeparator());
+            }
+            // A marker at the end has nothing after it to separate
+            return sb.toString().trim();
+        }
+    }
+}
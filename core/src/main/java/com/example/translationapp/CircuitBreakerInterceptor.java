@@ -0,0 +1,117 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * One circuit breaker per endpoint (method and path). After failureThreshold
+ * consecutive failures, meaning I/O errors or 5xx answers, the circuit opens
+ * and calls fail fast with {@link CircuitOpenException}. Once openMillis
+ * have passed, a single trial call is let through: success closes the
+ * circuit and failure opens it again.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    public CircuitBreakerInterceptor(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    CircuitBreakerInterceptor(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = endpoint(request);
+        Circuit circuit = circuits.computeIfAbsent(endpoint, key -> new Circuit());
+        if (!circuit.tryAcquire(clock.getAsLong())) throw new CircuitOpenException(endpoint);
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                circuit.release();
+            } else {
+                circuit.onFailure(clock.getAsLong());
+            }
+            throw e;
+        }
+        if (response.code() >= 500) {
+            circuit.onFailure(clock.getAsLong());
+        } else {
+            circuit.onSuccess();
+        }
+        return response;
+    }
+
+    public State getState(String method, String encodedPath) {
+        Circuit circuit = circuits.get(method + ' ' + encodedPath);
+        return circuit != null ? circuit.state : State.CLOSED;
+    }
+
+    private static String endpoint(Request request) {
+        return request.method() + ' ' + request.url().encodedPath();
+    }
+
+    private class Circuit {
+        private State state = State.CLOSED;
+        private int failures;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        synchronized boolean tryAcquire(long now) {
+            switch (state) {
+                case OPEN:
+                    if (now - openedAt < openMillis) return false;
+                    state = State.HALF_OPEN;
+                    trialInFlight = true;
+                    return true;
+                case HALF_OPEN:
+                    if (trialInFlight) return false;
+                    trialInFlight = true;
+                    return true;
+                default:
+                    return true;
+            }
+        }
+
+        /**
+         * A cancelled call says nothing about the endpoint; let another trial through
+         */
+        synchronized void release() {
+            if (state == State.HALF_OPEN) trialInFlight = false;
+        }
+
+        synchronized void onSuccess() {
+            state = State.CLOSED;
+            failures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure(long now) {
+            trialInFlight = false;
+            if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+
+/**
+ * Thrown without touching the network while an endpoint's circuit is open
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String endpoint) {
+        super("Service unavailable, try again shortly (" + endpoint + ")");
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Races a slow request against a copy. Requests whose {@link RequestPolicy}
+ * carries a hedge request are sent on their own; if no answer has arrived
+ * after the 95th percentile of recent latencies, the hedge request is sent
+ * too and whichever answers successfully first wins. An error response only
+ * comes back if neither copy succeeds.
+ *
+ * The losing copy is cancelled, except an original that is not idempotent
+ * when the hedge won: its effect, like a history entry the hedge leaves
+ * out, is still wanted, so it runs to the end and its response is dropped.
+ */
+public class HedgingInterceptor implements Interceptor {
+
+    // How often a waiting call checks whether it was cancelled
+    private static final long POLL_MILLIS = 50;
+    // Below this many samples the percentile is noise; use the initial delay
+    private static final int MIN_SAMPLES = 20;
+
+    private final OkHttpClient client;
+    private final long initialDelayMillis;
+    private final long minDelayMillis;
+    private final LatencyHistogram latencies = new LatencyHistogram(128);
+    private final AtomicLong hedgesSent = new AtomicLong();
+
+    /**
+     * @param client sends both copies; must not contain this interceptor and
+     *               should have its own Dispatcher so waiting calls cannot starve it
+     */
+    public HedgingInterceptor(OkHttpClient client, long initialDelayMillis, long minDelayMillis) {
+        this.client = client;
+        this.initialDelayMillis = initialDelayMillis;
+        this.minDelayMillis = minDelayMillis;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Request hedge = RequestPolicy.hedgeRequest(request);
+        if (hedge == null) return chain.proceed(request);
+
+        BlockingQueue<Outcome> results = new LinkedBlockingQueue<>();
+        AtomicBoolean decided = new AtomicBoolean();
+        Call primary = send(request, results, decided);
+        Call secondary = null;
+        Call winner = null;
+        // First copy to fail, kept in case the other fails too
+        Outcome failed = null;
+        int outstanding = 1;
+        long hedgeAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis());
+
+        try {
+            while (true) {
+                if (chain.call().isCanceled()) throw new IOException("Canceled");
+
+                long wait = POLL_MILLIS;
+                if (secondary == null) {
+                    wait = Math.min(wait, Math.max(0, TimeUnit.NANOSECONDS.toMillis(hedgeAt - System.nanoTime())));
+                }
+                Outcome result = results.poll(wait, TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    if (secondary == null && System.nanoTime() >= hedgeAt) {
+                        secondary = send(hedge, results, decided);
+                        outstanding++;
+                        hedgesSent.incrementAndGet();
+                    }
+                    continue;
+                }
+
+                outstanding--;
+                if (result.response != null && result.response.isSuccessful()) {
+                    winner = result.call;
+                    return result.response;
+                }
+                // One copy failed; wait for the other if it is still running
+                if (failed == null || (failed.response == null && result.response != null)) {
+                    failed = result;
+                } else if (result.response != null) {
+                    result.response.close();
+                }
+                if (outstanding == 0) {
+                    if (failed.response == null) throw failed.error;
+                    winner = failed.call;
+                    return failed.response;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while hedging");
+        } finally {
+            decided.set(true);
+            boolean keepPrimary = winner != null && winner == secondary && !RequestPolicy.isIdempotent(request);
+            if (primary != winner && !keepPrimary) primary.cancel();
+            if (secondary != null && secondary != winner) secondary.cancel();
+            if (failed != null && failed.response != null && failed.call != winner) failed.response.close();
+            // A loser that finished before the decision may still be queued
+            for (Outcome leftover; (leftover = results.poll()) != null; ) {
+                if (leftover.response != null) leftover.response.close();
+            }
+        }
+    }
+
+    private Call send(Request request, BlockingQueue<Outcome> results, AtomicBoolean decided) {
+        long start = System.nanoTime();
+        Call call = client.newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                if (!decided.get()) results.add(new Outcome(c, null, e));
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                if (decided.get()) {
+                    response.close();
+                    return;
+                }
+                Outcome outcome = new Outcome(c, response, null);
+                results.add(outcome);
+                // Lost the race between the check and the add
+                if (decided.get() && results.remove(outcome)) response.close();
+            }
+        });
+        return call;
+    }
+
+    /**
+     * Delay before the hedge is sent: p95 of recent latencies, or the initial delay until enough are known
+     */
+    long hedgeDelayMillis() {
+        if (latencies.count() < MIN_SAMPLES) return initialDelayMillis;
+        return Math.max(minDelayMillis, latencies.percentile(0.95));
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    private static class Outcome {
+        final Call call;
+        final Response response;
+        final IOException error;
+
+        Outcome(Call call, Response response, IOException error) {
+            this.call = call;
+            this.response = response;
+            this.error = error;
+        }
+    }
+}
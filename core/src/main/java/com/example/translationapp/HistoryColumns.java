@@ -0,0 +1,224 @@
+package com.example.translationapp;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compact, column-per-field form of a history list for keeping many items
+ * in memory. Instead of five Strings per item it stores:
+ * <ul>
+ *   <li>ids as longs, with the rare non-numeric id (e.g. pending local rows) on the side</li>
+ *   <li>target languages as a code into a table of the few distinct names</li>
+ *   <li>original text, translated text and timestamp back to back in one shared char array</li>
+ * </ul>
+ * Values a row shows are derived once per distinct value rather than on
+ * every bind: the upper-cased language and the date, which is the first
+ * ten characters of the timestamp exactly as written.
+ *
+ * Rows keep the order they were added in. Not thread-safe: fill it on one
+ * thread and hand it over before reading it on another.
+ */
+public class HistoryColumns {
+
+    private static final long NON_NUMERIC_ID = Long.MIN_VALUE;
+    private static final int DATE_LENGTH = "yyyy-MM-dd".length();
+
+    private int size;
+    private long[] ids = new long[16];
+    private int[] languages = new int[16];
+    private int[] dates = new int[16];
+    // Original text of row i is text[starts[3i], starts[3i+1]), translated up to
+    // starts[3i+2] and the timestamp up to starts[3i+3]
+    private int[] starts = new int[49];
+    private char[] text = new char[1024];
+
+    private final Map<Integer, String> otherIds = new HashMap<>();
+    private final Table languageNames = new Table();
+    private final List<String> languageLabels = new ArrayList<>();
+    private final Table dateLabels = new Table();
+
+    public int size() {
+        return size;
+    }
+
+    public void addAll(List<HistoryItem> items) {
+        for (HistoryItem item : items) add(item);
+    }
+
+    public void add(HistoryItem item) {
+        add(item.getId(), item.getOriginalText(), item.getTranslatedText(), item.getTargetLang(), item.getTimestamp());
+    }
+
+    /**
+     * Rows from index from of view onwards, e.g. those appended since the last call
+     */
+    public void addAll(HistorySnapshot.View view, int from) {
+        for (int i = from; i < view.size(); i++) add(view.get(i));
+    }
+
+    private void add(String id, String originalText, String translatedText, String targetLang, String timestamp) {
+        if (size == ids.length) grow();
+        int row = size;
+
+        long numericId = parseId(id);
+        ids[row] = numericId;
+        if (numericId == NON_NUMERIC_ID && id != null) otherIds.put(row, id);
+
+        String language = targetLang != null ? targetLang : "";
+        int languageCode = languageNames.code(language);
+        if (languageCode == languageLabels.size()) languageLabels.add(language.toUpperCase(Locale.ROOT));
+        languages[row] = languageCode;
+
+        // As the list has always shown it: the date part, or the whole value if shorter
+        String date = timestamp == null ? "" : timestamp.length() > DATE_LENGTH ? timestamp.substring(0, DATE_LENGTH) : timestamp;
+        dates[row] = dateLabels.code(date);
+
+        int end = starts[3 * row];
+        end = append(end, originalText);
+        starts[3 * row + 1] = end;
+        end = append(end, translatedText);
+        starts[3 * row + 2] = end;
+        end = append(end, timestamp);
+        starts[3 * row + 3] = end;
+        size++;
+    }
+
+    /**
+     * The row as a HistoryItem, with every field as it was added
+     */
+    public HistoryItem get(int row) {
+        checkRow(row);
+        return new HistoryItem(getId(row), getOriginalText(row).toString(), getTranslatedText(row).toString(),
+                getTargetLang(row), getTimestamp(row));
+    }
+
+    public String getId(int row) {
+        checkRow(row);
+        return ids[row] != NON_NUMERIC_ID ? Long.toString(ids[row]) : otherIds.get(row);
+    }
+
+    /**
+     * A view of the shared text, valid while this object is; no copy is made
+     */
+    public CharSequence getOriginalText(int row) {
+        checkRow(row);
+        return CharBuffer.wrap(text, starts[3 * row], starts[3 * row + 1] - starts[3 * row]);
+    }
+
+    public CharSequence getTranslatedText(int row) {
+        checkRow(row);
+        return CharBuffer.wrap(text, starts[3 * row + 1], starts[3 * row + 2] - starts[3 * row + 1]);
+    }
+
+    public String getTargetLang(int row) {
+        checkRow(row);
+        return languageNames.get(languages[row]);
+    }
+
+    /**
+     * Small code of the row's target language, the same for every row with that language
+     */
+    public int getLanguageCode(int row) {
+        checkRow(row);
+        return languages[row];
+    }
+
+    /**
+     * Target language in upper case, as shown in a row's tag
+     */
+    public String getLanguageLabel(int row) {
+        checkRow(row);
+        return languageLabels.get(languages[row]);
+    }
+
+    /**
+     * The timestamp as it was added, whatever its form; empty if it was null
+     */
+    public String getTimestamp(int row) {
+        checkRow(row);
+        return new String(text, starts[3 * row + 2], starts[3 * row + 3] - starts[3 * row + 2]);
+    }
+
+    /**
+     * First ten characters of the timestamp as written ("yyyy-MM-dd" of the
+     * zone it was recorded in), or all of it if shorter; empty if there was none
+     */
+    public String getDateLabel(int row) {
+        checkRow(row);
+        return dateLabels.get(dates[row]);
+    }
+
+    /**
+     * Drop spare capacity once no more rows are expected for a while
+     */
+    public void trimToSize() {
+        int capacity = Math.max(size, 1);
+        ids = Arrays.copyOf(ids, capacity);
+        languages = Arrays.copyOf(languages, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        starts = Arrays.copyOf(starts, 3 * capacity + 1);
+        text = Arrays.copyOf(text, starts[3 * size]);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + ", size " + size);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        languages = Arrays.copyOf(languages, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        starts = Arrays.copyOf(starts, 3 * capacity + 1);
+    }
+
+    private int append(int end, String value) {
+        if (value == null) return end;
+        int length = value.length();
+        if (end + length > text.length) text = Arrays.copyOf(text, Math.max(text.length * 2, end + length));
+        value.getChars(0, length, text, end);
+        return end + length;
+    }
+
+    /**
+     * Decimal ids without a leading zero fit a long and come back unchanged
+     */
+    private static long parseId(String id) {
+        if (id == null || id.isEmpty() || id.length() > 18) return NON_NUMERIC_ID;
+        if (id.length() > 1 && id.charAt(0) == '0') return NON_NUMERIC_ID;
+        long value = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') return NON_NUMERIC_ID;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Distinct values in the order first seen, each named by its index
+     */
+    private static class Table {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String get(int code) {
+            return values.get(code);
+        }
+    }
+}
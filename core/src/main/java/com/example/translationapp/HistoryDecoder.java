@@ -0,0 +1,108 @@
+package com.example.translationapp;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoder for the /translate/history response. Items are read one
+ * at a time with a {@link JsonReader} and handed out in batches, so the body
+ * is never held as a String or a JSON tree.
+ */
+public class HistoryDecoder {
+
+    public interface BatchListener {
+        void onBatch(List<HistoryItem> batch);
+    }
+
+    private HistoryDecoder() {}
+
+    /**
+     * Decode {"history": [...], "nextCursor": ...} from the reader, publishing every batchSize items.
+     */
+    public static Result decode(Reader source, int batchSize, BatchListener listener) throws IOException {
+        int total = 0;
+        String nextCursor = null;
+        try (JsonReader reader = new JsonReader(source)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("nextCursor".equals(name) && reader.peek() != JsonToken.NULL) {
+                    nextCursor = reader.nextString();
+                    continue;
+                }
+                if (!"history".equals(name) || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                List<HistoryItem> batch = new ArrayList<>(batchSize);
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    batch.add(readItem(reader));
+                    total++;
+                    if (batch.size() == batchSize) {
+                        listener.onBatch(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                reader.endArray();
+                if (!batch.isEmpty()) listener.onBatch(batch);
+            }
+            reader.endObject();
+        }
+        return new Result(total, nextCursor);
+    }
+
+    /**
+     * Decode the whole response into one list
+     */
+    public static List<HistoryItem> decodeAll(Reader source) throws IOException {
+        List<HistoryItem> items = new ArrayList<>();
+        decode(source, 256, items::addAll);
+        return items;
+    }
+
+    public static class Result {
+        private final int count;
+        private final String nextCursor;
+
+        Result(int count, String nextCursor) {
+            this.count = count;
+            this.nextCursor = nextCursor;
+        }
+
+        public int getCount() { return count; }
+
+        /**
+         * Cursor for the following page, or null when this was the last one
+         */
+        public String getNextCursor() { return nextCursor; }
+    }
+
+    private static HistoryItem readItem(JsonReader reader) throws IOException {
+        String id = "", originalText = "", translatedText = "", targetLang = "", timestamp = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id": id = reader.nextString(); break;
+                case "originalText": originalText = reader.nextString(); break;
+                case "translatedText": translatedText = reader.nextString(); break;
+                case "targetLang": targetLang = reader.nextString(); break;
+                case "timestamp": timestamp = reader.nextString(); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new HistoryItem(id, originalText, translatedText, targetLang, timestamp);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.translationapp;
+
+import java.util.Objects;
+
+public class HistoryItem {
+    private final String id, originalText, translatedText, targetLang, timestamp;
+
+    public HistoryItem(String id, String originalText, String translatedText, String targetLang, String timestamp) {
+        this.id = id; this.originalText = originalText; this.translatedText = translatedText;
+        this.targetLang = targetLang; this.timestamp = timestamp;
+    }
+
+    public String getId() { return id; }
+    public String getOriginalText() { return originalText; }
+    public String getTranslatedText() { return translatedText; }
+    public String getTargetLang() { return targetLang; }
+    public String getTimestamp() { return timestamp; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HistoryItem)) return false;
+        HistoryItem other = (HistoryItem) o;
+        return Objects.equals(id, other.id) && Objects.equals(originalText, other.originalText)
+                && Objects.equals(translatedText, other.translatedText)
+                && Objects.equals(targetLang, other.targetLang) && Objects.equals(timestamp, other.timestamp);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, originalText, translatedText, targetLang, timestamp);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.translationapp;
+
+import java.util.Arrays;
+
+/**
+ * What changed between two lists of history rows, each shown newest first:
+ * all rows of a snapshot, or only the search matches among them. It is
+ * worked out off the main thread and replayed to a list adapter as range
+ * notifications.
+ *
+ * When the new snapshot extends the old one, rows keep their indices, so
+ * one walk over both lists finds every run that was inserted or removed.
+ * Otherwise indices no longer name the same records and the common
+ * positions are reported as changed.
+ */
+public final class HistoryRowsDiff {
+
+    public interface Callback {
+        void onInserted(int position, int count);
+        void onRemoved(int position, int count);
+        void onChanged(int position, int count);
+    }
+
+    private static final int INSERTED = 0;
+    private static final int REMOVED = 1;
+    private static final int CHANGED = 2;
+
+    // Kind, position and count of each run, in the order they must be applied
+    private int[] runs = new int[3 * 4];
+    private int size;
+
+    private HistoryRowsDiff() {
+    }
+
+    /**
+     * @param oldMatches snapshot indices of the rows shown, ascending; null for every row
+     */
+    public static HistoryRowsDiff compute(HistorySnapshot.View oldRows, int[] oldMatches,
+                                          HistorySnapshot.View newRows, int[] newMatches) {
+        HistoryRowsDiff diff = new HistoryRowsDiff();
+        int oldCount = count(oldRows, oldMatches);
+        int newCount = count(newRows, newMatches);
+        if (!newRows.startsWith(oldRows)) {
+            diff.add(CHANGED, 0, Math.min(oldCount, newCount));
+            if (newCount > oldCount) diff.add(INSERTED, oldCount, newCount - oldCount);
+            if (oldCount > newCount) diff.add(REMOVED, newCount, oldCount - newCount);
+            return diff;
+        }
+
+        int i = 0, j = 0, position = 0;
+        while (i < oldCount || j < newCount) {
+            int oldIndex = i < oldCount ? indexAt(oldRows, oldMatches, i) : -1;
+            int newIndex = j < newCount ? indexAt(newRows, newMatches, j) : -1;
+            if (oldIndex == newIndex) {
+                i++;
+                j++;
+                position++;
+            } else if (oldIndex > newIndex) {
+                int run = 0;
+                while (i < oldCount && indexAt(oldRows, oldMatches, i) > newIndex) {
+                    i++;
+                    run++;
+                }
+                diff.add(REMOVED, position, run);
+            } else {
+                int run = 0;
+                while (j < newCount && indexAt(newRows, newMatches, j) > oldIndex) {
+                    j++;
+                    run++;
+                }
+                diff.add(INSERTED, position, run);
+                position += run;
+            }
+        }
+        return diff;
+    }
+
+    public static int count(HistorySnapshot.View rows, int[] matches) {
+        return matches != null ? matches.length : rows.size();
+    }
+
+    /**
+     * Snapshot index of the row at position; newest first
+     */
+    public static int indexAt(HistorySnapshot.View rows, int[] matches, int position) {
+        return matches != null ? matches[matches.length - 1 - position] : rows.size() - 1 - position;
+    }
+
+    public void dispatchTo(Callback callback) {
+        for (int i = 0; i < size; i += 3) {
+            int position = runs[i + 1];
+            int count = runs[i + 2];
+            switch (runs[i]) {
+                case INSERTED:
+                    callback.onInserted(position, count);
+                    break;
+                case REMOVED:
+                    callback.onRemoved(position, count);
+                    break;
+                default:
+                    callback.onChanged(position, count);
+                    break;
+            }
+        }
+    }
+
+    private void add(int kind, int position, int count) {
+        if (count == 0) return;
+        if (size == runs.length) runs = Arrays.copyOf(runs, runs.length * 2);
+        runs[size++] = kind;
+        runs[size++] = position;
+        runs[size++] = count;
+    }
+}
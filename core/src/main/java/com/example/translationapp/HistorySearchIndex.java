@@ -0,0 +1,175 @@
+package com.example.translationapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Trigram inverted index over the original and translated text of history
+ * items. Text is case-folded once when an item is added; a query of three
+ * or more characters only verifies the items that contain all of its
+ * trigrams. Results keep the order in which items were added and match
+ * the old case-insensitive "contains" filter exactly.
+ *
+ * Not thread-safe: build and query it from one background thread.
+ */
+public class HistorySearchIndex {
+
+    // Separates the two texts so a trigram never spans both
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final List<HistoryItem> items = new ArrayList<>();
+    private final List<String> normalized = new ArrayList<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    public void addAll(List<HistoryItem> batch) {
+        for (HistoryItem item : batch) add(item);
+    }
+
+    public void add(HistoryItem item) {
+        add(item, item.getOriginalText(), item.getTranslatedText());
+    }
+
+    /**
+     * Index text without keeping an item for it; such documents are only
+     * reported by {@link #match}, as their position in the order they were added
+     */
+    public void add(String originalText, String translatedText) {
+        add(null, originalText, translatedText);
+    }
+
+    private void add(HistoryItem item, String originalText, String translatedText) {
+        int doc = items.size();
+        String text = normalize(originalText) + FIELD_SEPARATOR + normalize(translatedText);
+        items.add(item);
+        normalized.add(text);
+
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long trigram = trigram(text, i);
+            if (trigram < 0) continue;
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                list = new Postings();
+                postings.put(trigram, list);
+            }
+            list.add(doc);
+        }
+    }
+
+    public void clear() {
+        items.clear();
+        normalized.clear();
+        postings.clear();
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Items whose original or translated text contains query, ignoring case.
+     *
+     * @return the matches, or null if cancelled returned true while searching
+     */
+    public List<HistoryItem> search(String query, BooleanSupplier cancelled) {
+        int[] docs = match(query, cancelled);
+        if (docs == null) return null;
+        List<HistoryItem> result = new ArrayList<>(docs.length);
+        for (int doc : docs) result.add(items.get(doc));
+        return result;
+    }
+
+    /**
+     * Like {@link #search}, but returns the matching documents' positions in
+     * the order they were added, ascending
+     */
+    public int[] match(String query, BooleanSupplier cancelled) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            int[] all = new int[items.size()];
+            for (int i = 0; i < all.length; i++) all[i] = i;
+            return all;
+        }
+        if (q.indexOf(FIELD_SEPARATOR) >= 0) return new int[0];
+
+        if (q.length() < 3) {
+            return scan(q, null, cancelled);
+        }
+
+        // Intersect starting from the rarest trigram
+        Postings[] lists = new Postings[q.length() - 2];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(trigram(q, i));
+            if (lists[i] == null) return new int[0];
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] candidates = Arrays.copyOf(lists[0].docs, lists[0].size);
+        int count = candidates.length;
+        for (int l = 1; l < lists.length && count > 0; l++) {
+            if (cancelled.getAsBoolean()) return null;
+            count = intersect(candidates, count, lists[l]);
+        }
+        return scan(q, Arrays.copyOf(candidates, count), cancelled);
+    }
+
+    /**
+     * Verify candidates (or every item when null) with a plain substring check
+     */
+    private int[] scan(String q, int[] candidates, BooleanSupplier cancelled) {
+        int total = candidates != null ? candidates.length : items.size();
+        int[] result = new int[total];
+        int count = 0;
+        for (int i = 0; i < total; i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) return null;
+            int doc = candidates != null ? candidates[i] : i;
+            if (normalized.get(doc).contains(q)) result[count++] = doc;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * In-place intersection of the sorted candidates with a sorted posting list
+     */
+    private static int intersect(int[] candidates, int count, Postings list) {
+        int out = 0, j = 0;
+        for (int i = 0; i < count && j < list.size; i++) {
+            int doc = candidates[i];
+            while (j < list.size && list.docs[j] < doc) j++;
+            if (j < list.size && list.docs[j] == doc) candidates[out++] = doc;
+        }
+        return out;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Three chars packed into one key, or -1 if the window spans the field separator
+     */
+    private static long trigram(String text, int i) {
+        char a = text.charAt(i), b = text.charAt(i + 1), c = text.charAt(i + 2);
+        if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) return -1;
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Growable sorted int list; a document is added once even if a trigram repeats
+     */
+    private static class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return;
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.translationapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * One user's history as an append-only pair of files that are
+ * memory-mapped instead of loaded. The data file holds length-prefixed
+ * records in the order they were appended (oldest first); the index file
+ * holds one int offset per record. Opening costs two mmaps whatever the
+ * size of the history, and a {@link View} decodes a record only when
+ * asked for it, e.g. when its row scrolls into view.
+ *
+ * Layout, big-endian:
+ * <pre>
+ *   data    magic "HSNP", int format, then records:
+ *           int payload length, 5 x (int byte length or -1 for null, UTF-8 bytes)
+ *           for id, original, translated, target language, timestamp
+ *   index   magic "HSNP", int format, then one int data offset per record
+ * </pre>
+ *
+ * A record is written before its index entry, so a write torn by process
+ * death leaves at most an unindexed tail that the next open cuts off.
+ */
+public class HistorySnapshot {
+
+    static final int MAGIC = 0x48534e50;
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 8;
+    private static final int FIELDS = 5;
+
+    private final File dataFile;
+    private final File indexFile;
+    private View view;
+    // Shared by views of the same file; a rewrite or delete starts a new one
+    private Object lineage = new Object();
+
+    public HistorySnapshot(File directory, String name) {
+        this.dataFile = new File(directory, name + ".dat");
+        this.indexFile = new File(directory, name + ".idx");
+    }
+
+    public synchronized boolean exists() {
+        return dataFile.exists() && indexFile.exists();
+    }
+
+    /**
+     * Current contents, mapping the files on first use
+     *
+     * @throws IOException if there is no snapshot or it is not readable
+     */
+    public synchronized View view() throws IOException {
+        if (view == null) view = open();
+        return view;
+    }
+
+    /**
+     * Add items after the existing records; they should be newer than all of them
+     *
+     * @return the contents including the new items
+     */
+    public synchronized View append(List<HistoryItem> items) throws IOException {
+        if (!exists()) throw new IOException("No history snapshot to append to");
+        View current = view();
+        if (items.isEmpty()) return current;
+
+        try (RandomAccessFile data = new RandomAccessFile(dataFile, "rw");
+             RandomAccessFile index = new RandomAccessFile(indexFile, "rw")) {
+            write(data.getChannel(), index.getChannel(), items.iterator());
+        }
+        view = open();
+        return view;
+    }
+
+    /**
+     * Replace the snapshot with items, oldest first. Readers of the old
+     * snapshot keep their mapping; the new one is swapped in by renaming.
+     */
+    public synchronized View rewrite(Iterator<HistoryItem> items) throws IOException {
+        File parent = dataFile.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) throw new IOException("Cannot create " + parent);
+
+        File dataTmp = new File(dataFile.getPath() + ".tmp");
+        File indexTmp = new File(indexFile.getPath() + ".tmp");
+        try {
+            try (RandomAccessFile data = new RandomAccessFile(dataTmp, "rw");
+                 RandomAccessFile index = new RandomAccessFile(indexTmp, "rw")) {
+                data.setLength(0);
+                index.setLength(0);
+                writeHeader(data.getChannel());
+                writeHeader(index.getChannel());
+                write(data.getChannel(), index.getChannel(), items);
+            }
+            // Index last: without it the data file alone is not a snapshot
+            indexFile.delete();
+            if (!dataTmp.renameTo(dataFile) || !indexTmp.renameTo(indexFile)) {
+                throw new IOException("Could not replace history snapshot");
+            }
+            lineage = new Object();
+        } finally {
+            dataTmp.delete();
+            indexTmp.delete();
+        }
+        view = open();
+        return view;
+    }
+
+    /**
+     * Remove the files; mapped views stay readable until they are collected
+     */
+    public synchronized void delete() {
+        view = null;
+        lineage = new Object();
+        indexFile.delete();
+        dataFile.delete();
+    }
+
+    private View open() throws IOException {
+        try (RandomAccessFile data = new RandomAccessFile(dataFile, "rw");
+             RandomAccessFile index = new RandomAccessFile(indexFile, "rw")) {
+            checkHeader(data);
+            checkHeader(index);
+
+            // Drop index entries whose record did not make it to disk, then anything unindexed
+            long dataLength = data.length();
+            int count = (int) ((index.length() - HEADER_SIZE) / 4);
+            long end = HEADER_SIZE;
+            while (count > 0) {
+                index.seek(HEADER_SIZE + 4L * (count - 1));
+                long offset = index.readInt();
+                if (offset >= HEADER_SIZE && offset + 4 <= dataLength) {
+                    data.seek(offset);
+                    long recordEnd = offset + 4 + data.readInt();
+                    if (recordEnd <= dataLength) {
+                        end = recordEnd;
+                        break;
+                    }
+                }
+                count--;
+            }
+            if (index.length() != HEADER_SIZE + 4L * count) index.setLength(HEADER_SIZE + 4L * count);
+            if (dataLength != end) data.setLength(end);
+
+            FileChannel dataChannel = data.getChannel();
+            FileChannel indexChannel = index.getChannel();
+            return new View(dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, end),
+                    indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + 4L * count), count, lineage);
+        }
+    }
+
+    private static void checkHeader(RandomAccessFile file) throws IOException {
+        if (file.length() < HEADER_SIZE) throw new IOException("Not a history snapshot");
+        file.seek(0);
+        if (file.readInt() != MAGIC) throw new IOException("Not a history snapshot");
+        int format = file.readInt();
+        if (format != FORMAT) throw new IOException("Unsupported history snapshot format " + format);
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT);
+        header.flip();
+        while (header.hasRemaining()) channel.write(header);
+    }
+
+    /**
+     * Write records at the end of data, then their offsets at the end of index
+     */
+    private static void write(FileChannel data, FileChannel index, Iterator<HistoryItem> items) throws IOException {
+        long offset = data.size();
+        data.position(offset);
+        index.position(index.size());
+        ByteBuffer offsets = ByteBuffer.allocate(4 * 1024);
+        byte[][] fields = new byte[FIELDS][];
+
+        while (items.hasNext()) {
+            HistoryItem item = items.next();
+            fields[0] = bytes(item.getId());
+            fields[1] = bytes(item.getOriginalText());
+            fields[2] = bytes(item.getTranslatedText());
+            fields[3] = bytes(item.getTargetLang());
+            fields[4] = bytes(item.getTimestamp());
+            int length = 0;
+            for (byte[] field : fields) length += 4 + (field != null ? field.length : 0);
+            // Offsets are ints and a mapping is at most 2 GB
+            if (offset + 4 + length > Integer.MAX_VALUE) throw new IOException("History snapshot too large");
+
+            ByteBuffer record = ByteBuffer.allocate(4 + length).putInt(length);
+            for (byte[] field : fields) {
+                record.putInt(field != null ? field.length : -1);
+                if (field != null) record.put(field);
+            }
+            record.flip();
+            while (record.hasRemaining()) data.write(record);
+
+            offsets.putInt((int) offset);
+            offset += 4 + length;
+            if (!offsets.hasRemaining()) flushOffsets(data, index, offsets);
+        }
+        flushOffsets(data, index, offsets);
+    }
+
+    private static void flushOffsets(FileChannel data, FileChannel index, ByteBuffer offsets) throws IOException {
+        if (offsets.position() == 0) return;
+        data.force(false);
+        offsets.flip();
+        while (offsets.hasRemaining()) index.write(offsets);
+        index.force(false);
+        offsets.clear();
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Immutable, thread-safe window onto the snapshot as it was when taken.
+     * Appends made later are seen by a new view, not this one.
+     */
+    public static final class View {
+
+        public static final View EMPTY = new View(null, null, 0, new Object());
+
+        private final ByteBuffer data;
+        private final ByteBuffer index;
+        private final int size;
+        private final Object lineage;
+
+        View(ByteBuffer data, ByteBuffer index, int size, Object lineage) {
+            this.data = data;
+            this.index = index;
+            this.size = size;
+            this.lineage = lineage;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * True if earlier's records are this view's first ones, i.e. this view
+         * only adds appends to it; lets derived data be extended, not rebuilt
+         */
+        public boolean startsWith(View earlier) {
+            return earlier != null && earlier.lineage == lineage && earlier.size <= size;
+        }
+
+        /**
+         * Decode the record at index in append order, oldest first
+         */
+        public HistoryItem get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            ByteBuffer record = data.duplicate();
+            record.position(this.index.getInt(HEADER_SIZE + 4 * index) + 4);
+            return new HistoryItem(string(record), string(record), string(record), string(record), string(record));
+        }
+
+        /**
+         * Decode the record at position in newest-first order, the order history is shown in
+         */
+        public HistoryItem getNewest(int position) {
+            return get(size - 1 - position);
+        }
+
+        private static String string(ByteBuffer record) {
+            int length = record.getInt();
+            if (length < 0) return null;
+            byte[] bytes = new byte[length];
+            record.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.translationapp;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window over the most recent samples (e.g. latencies in ms) with
+ * percentiles computed on demand. Older samples fall out of the window so
+ * the numbers follow current network conditions.
+ */
+public class LatencyHistogram {
+
+    private final long[] window;
+    private long count;
+
+    public LatencyHistogram(int windowSize) {
+        this.window = new long[windowSize];
+    }
+
+    public synchronized void record(long value) {
+        window[(int) (count % window.length)] = value;
+        count++;
+    }
+
+    /**
+     * Samples recorded so far, including those that left the window
+     */
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * Nearest-rank percentiles, e.g. 0.5 and 0.95, over the current window;
+     * -1 for each when nothing was recorded yet
+     */
+    public synchronized long[] percentiles(double... fractions) {
+        long[] result = new long[fractions.length];
+        int size = (int) Math.min(count, window.length);
+        if (size == 0) {
+            Arrays.fill(result, -1);
+            return result;
+        }
+
+        long[] sorted = Arrays.copyOf(window, size);
+        Arrays.sort(sorted);
+        for (int i = 0; i < fractions.length; i++) {
+            int rank = (int) Math.ceil(size * fractions[i]);
+            result[i] = sorted[Math.max(0, Math.min(size, rank) - 1)];
+        }
+        return result;
+    }
+
+    public long percentile(double fraction) {
+        return percentiles(fraction)[0];
+    }
+
+    public synchronized void clear() {
+        count = 0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+/**
+ * Lets only the most recent of a series of requests deliver its result.
+ * Each request takes a sequence token from {@link #next()}; starting a
+ * different request cancels the call in flight, an identical one joins it,
+ * and anything that completes for an older token is dropped.
+ */
+public class LatestRequestGate {
+
+    public interface Handler {
+        void onResponse(long token, Response response) throws IOException;
+        void onFailure(long token, IOException e);
+    }
+
+    private long sequence;
+    private Call inFlight;
+    private String inFlightKey;
+    private long inFlightToken;
+    private Handler inFlightHandler;
+
+    /**
+     * Token for a new request; every earlier token becomes stale
+     */
+    public synchronized long next() {
+        return ++sequence;
+    }
+
+    public synchronized boolean isCurrent(long token) {
+        return token == sequence;
+    }
+
+    /**
+     * Send the request for token unless it is already stale. If a call with the
+     * same key is still running it is reused and its result goes to this handler.
+     */
+    public void enqueue(long token, String key, Supplier<Call> newCall, Handler handler) {
+        Call call;
+        synchronized (this) {
+            if (token != sequence) return;
+            if (inFlight != null && key.equals(inFlightKey) && !inFlight.isCanceled()) {
+                inFlightToken = token;
+                inFlightHandler = handler;
+                return;
+            }
+            cancelInFlight();
+            call = newCall.get();
+            inFlight = call;
+            inFlightKey = key;
+            inFlightToken = token;
+            inFlightHandler = handler;
+        }
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                Delivery delivery = finish(c);
+                if (delivery != null) delivery.handler.onFailure(delivery.token, e);
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) throws IOException {
+                Delivery delivery = finish(c);
+                if (delivery == null) {
+                    response.close();
+                    return;
+                }
+                delivery.handler.onResponse(delivery.token, response);
+            }
+        });
+    }
+
+    /**
+     * Cancel whatever is in flight, e.g. because the latest request was answered from cache
+     */
+    public synchronized void cancelInFlight() {
+        if (inFlight != null) inFlight.cancel();
+        inFlight = null;
+        inFlightKey = null;
+        inFlightHandler = null;
+    }
+
+    private synchronized Delivery finish(Call call) {
+        if (call != inFlight) return null;
+        Delivery delivery = inFlightToken == sequence ? new Delivery(inFlightToken, inFlightHandler) : null;
+        inFlight = null;
+        inFlightKey = null;
+        inFlightHandler = null;
+        return delivery;
+    }
+
+    private static class Delivery {
+        final long token;
+        final Handler handler;
+
+        Delivery(long token, Handler handler) {
+            this.token = token;
+            this.handler = handler;
+        }
+    }
+}
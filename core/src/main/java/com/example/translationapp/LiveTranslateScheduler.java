@@ -0,0 +1,95 @@
+package com.example.translationapp;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when translate-as-you-type actually sends a request. Only the last
+ * submission of a burst runs, once input has been idle for the debounce
+ * delay; runs are at least minInterval apart so fast typists cannot flood
+ * the backend; and a submission whose key equals the last one that ran is
+ * dropped, so edits that normalize to the same text cost nothing.
+ */
+public class LiveTranslateScheduler {
+
+    private final ScheduledExecutorService scheduler;
+    private final long debounceMillis;
+    private final long minIntervalMillis;
+
+    private ScheduledFuture<?> pending;
+    // Bumped on every submit and cancel so a task that already started can tell it was superseded
+    private long generation;
+    private String lastKey;
+    private long lastRunAt = Long.MIN_VALUE;
+
+    public LiveTranslateScheduler(ScheduledExecutorService scheduler, long debounceMillis, long minIntervalMillis) {
+        this.scheduler = scheduler;
+        this.debounceMillis = debounceMillis;
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    /**
+     * Replace whatever is waiting with action. It runs on the scheduler's thread.
+     *
+     * @param key normalized form of the input, e.g. {@link TranslationCache#key}
+     */
+    public synchronized void submit(String key, Runnable action) {
+        cancel();
+        if (key.equals(lastKey)) return;
+
+        long now = now();
+        long delay = debounceMillis;
+        if (lastRunAt != Long.MIN_VALUE) {
+            delay = Math.max(delay, lastRunAt + minIntervalMillis - now);
+        }
+        long scheduled = generation;
+        pending = scheduler.schedule(() -> run(scheduled, key, action), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drop the waiting action, if any
+     */
+    public synchronized void cancel() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * Forget the last key so the same text is sent again, e.g. after the target language changed
+     */
+    public synchronized void reset() {
+        cancel();
+        lastKey = null;
+    }
+
+    /**
+     * The run for key failed, so the same text may be sent again. Unlike
+     * {@link #reset()} this leaves a waiting action alone.
+     */
+    public synchronized void forget(String key) {
+        if (key.equals(lastKey)) lastKey = null;
+    }
+
+    public void shutdown() {
+        cancel();
+        scheduler.shutdownNow();
+    }
+
+    private void run(long scheduled, String key, Runnable action) {
+        synchronized (this) {
+            if (scheduled != generation) return;
+            pending = null;
+            lastKey = key;
+            lastRunAt = now();
+        }
+        action.run();
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Times the phases of each call and feeds them to {@link NetworkMetrics}.
+ * DNS, connect and TLS only appear when a new connection is opened;
+ * "server" is the time from the request being written to the first response
+ * byte. Phases are recorded for every retry attempt, the total and byte
+ * counts once per call; calls that never reached the network, such as those
+ * rejected by an open circuit, are not counted.
+ */
+public class MetricsEventListener extends EventListener {
+
+    private final NetworkMetrics metrics;
+    private final String endpoint;
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private long requestEnd;
+    private long responseStart;
+    private long bytesSent;
+    private long bytesReceived;
+    private boolean reachedNetwork;
+
+    MetricsEventListener(NetworkMetrics metrics, String endpoint) {
+        this.metrics = metrics;
+        this.endpoint = endpoint;
+    }
+
+    public static EventListener.Factory factory(NetworkMetrics metrics) {
+        return call -> new MetricsEventListener(metrics, endpointOf(call.request()));
+    }
+
+    /**
+     * Method and path, with the username in /auth/user/{username} collapsed so users share one entry
+     */
+    static String endpointOf(Request request) {
+        HttpUrl url = request.url();
+        StringBuilder path = new StringBuilder();
+        List<String> segments = url.pathSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            boolean username = i > 0 && "user".equals(segments.get(i - 1)) && !segments.get(i).isEmpty();
+            path.append('/').append(username ? "{username}" : segments.get(i));
+        }
+        return request.method() + ' ' + path;
+    }
+
+    private static long now() {
+        return System.nanoTime();
+    }
+
+    private void record(String phase, long startNanos) {
+        metrics.recordPhase(endpoint, phase, TimeUnit.NANOSECONDS.toMillis(now() - startNanos));
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = now();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        reachedNetwork = true;
+        dnsStart = now();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+        record(NetworkMetrics.DNS, dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+        reachedNetwork = true;
+        connectStart = now();
+        secureConnectStart = 0;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = now();
+        // TCP is done once the TLS handshake starts
+        record(NetworkMetrics.CONNECT, connectStart);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        record(NetworkMetrics.TLS, secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+        if (secureConnectStart == 0) record(NetworkMetrics.CONNECT, connectStart);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        reachedNetwork = true;
+        requestStart = now();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        bytesSent += request.headers().byteCount();
+        requestEnd = now();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        bytesSent += byteCount;
+        requestEnd = now();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        responseStart = now();
+        metrics.recordPhase(endpoint, NetworkMetrics.REQUEST, TimeUnit.NANOSECONDS.toMillis(requestEnd - requestStart));
+        record(NetworkMetrics.SERVER, requestEnd);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        bytesReceived += response.headers().byteCount();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        bytesReceived += byteCount;
+        record(NetworkMetrics.DOWNLOAD, responseStart);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        finish(false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        finish(true);
+    }
+
+    private void finish(boolean failed) {
+        if (!reachedNetwork) return;
+        record(NetworkMetrics.TOTAL, callStart);
+        metrics.recordCall(endpoint, failed, bytesSent, bytesReceived);
+    }
+}
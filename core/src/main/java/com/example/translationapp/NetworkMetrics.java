@@ -0,0 +1,129 @@
+package com.example.translationapp;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint network timings and byte counts fed by
+ * {@link MetricsEventListener}. Each phase keeps a histogram of the most
+ * recent calls so p50/p95/p99 can be read at any time.
+ */
+public class NetworkMetrics {
+
+    public static final String DNS = "dns";
+    public static final String CONNECT = "connect";
+    public static final String TLS = "tls";
+    public static final String REQUEST = "request";
+    public static final String SERVER = "server";
+    public static final String DOWNLOAD = "download";
+    public static final String TOTAL = "total";
+
+    static final String[] PHASES = { DNS, CONNECT, TLS, REQUEST, SERVER, DOWNLOAD, TOTAL };
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+    private static final int WINDOW = 1024;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    public void recordPhase(String endpoint, String phase, long millis) {
+        endpoint(endpoint).phase(phase).record(millis);
+    }
+
+    public void recordCall(String endpoint, boolean failed, long bytesSent, long bytesReceived) {
+        Endpoint stats = endpoint(endpoint);
+        stats.calls.incrementAndGet();
+        if (failed) stats.failures.incrementAndGet();
+        stats.bytesSent.addAndGet(bytesSent);
+        stats.bytesReceived.addAndGet(bytesReceived);
+    }
+
+    /**
+     * Percentiles (p50, p95, p99) of one phase, or null if the endpoint was never called
+     */
+    public long[] percentiles(String endpoint, String phase) {
+        Endpoint stats = endpoints.get(endpoint);
+        return stats != null ? stats.phase(phase).percentiles(PERCENTILES) : null;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * Plain-text table for the debug screen
+     */
+    public String formatReport() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint stats = entry.getValue();
+            sb.append(entry.getKey()).append('\n');
+            sb.append(String.format(Locale.ROOT, "  calls %d, failed %d, sent %d B, received %d B%n",
+                    stats.calls.get(), stats.failures.get(), stats.bytesSent.get(), stats.bytesReceived.get()));
+            sb.append(String.format(Locale.ROOT, "  %-9s %6s %7s %7s %7s%n", "phase", "n", "p50", "p95", "p99"));
+            for (String phase : PHASES) {
+                LatencyHistogram histogram = stats.phase(phase);
+                if (histogram.count() == 0) continue;
+                long[] p = histogram.percentiles(PERCENTILES);
+                sb.append(String.format(Locale.ROOT, "  %-9s %6d %5dms %5dms %5dms%n",
+                        phase, histogram.count(), p[0], p[1], p[2]));
+            }
+            sb.append('\n');
+        }
+        return sb.length() > 0 ? sb.toString() : "No requests recorded yet\n";
+    }
+
+    /**
+     * Snapshot for export
+     */
+    public JsonObject toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("capturedAt", System.currentTimeMillis());
+        JsonArray list = new JsonArray();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint stats = entry.getValue();
+            JsonObject endpoint = new JsonObject();
+            endpoint.addProperty("endpoint", entry.getKey());
+            endpoint.addProperty("calls", stats.calls.get());
+            endpoint.addProperty("failures", stats.failures.get());
+            endpoint.addProperty("bytesSent", stats.bytesSent.get());
+            endpoint.addProperty("bytesReceived", stats.bytesReceived.get());
+
+            JsonObject phases = new JsonObject();
+            for (String phase : PHASES) {
+                LatencyHistogram histogram = stats.phase(phase);
+                if (histogram.count() == 0) continue;
+                long[] p = histogram.percentiles(PERCENTILES);
+                JsonObject timings = new JsonObject();
+                timings.addProperty("count", histogram.count());
+                timings.addProperty("p50", p[0]);
+                timings.addProperty("p95", p[1]);
+                timings.addProperty("p99", p[2]);
+                phases.add(phase, timings);
+            }
+            endpoint.add("phasesMillis", phases);
+            list.add(endpoint);
+        }
+        root.add("endpoints", list);
+        return root;
+    }
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint());
+    }
+
+    private static class Endpoint {
+        final Map<String, LatencyHistogram> phases = new ConcurrentSkipListMap<>();
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong bytesSent = new AtomicLong();
+        final AtomicLong bytesReceived = new AtomicLong();
+
+        LatencyHistogram phase(String phase) {
+            return phases.computeIfAbsent(phase, key -> new LatencyHistogram(WINDOW));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.translationapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only table of stock phrases and their translations, stored as a
+ * byte-level radix trie in a file that is memory-mapped rather than loaded.
+ * Runs of single-child nodes are folded into their parent, so a lookup
+ * compares the key against each node's run of bytes and binary-searches
+ * the children only where phrases branch. It touches a few pages and
+ * allocates only the encoded key and the answer.
+ *
+ * File layout, big-endian, written by {@link PhrasebookWriter}:
+ * <pre>
+ *   header  magic "PHRB", int format, long table version, int entry count,
+ *           int root node offset, int CRC32 of everything after the header, int 0
+ *   node    int value offset or -1, u8 run length, run bytes, u16 child count,
+ *           children sorted by label: (u8 label, int node offset) each
+ *   value   u16 length, UTF-8 bytes
+ * </pre>
+ */
+public class Phrasebook {
+
+    static final int MAGIC = 0x50485242;
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 32;
+    // Separates the target language from the phrase in a key
+    static final char KEY_SEPARATOR = '\u001f';
+
+    private final ByteBuffer buffer;
+    private final long version;
+    private final int size;
+    private final int root;
+
+    private Phrasebook(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a phrasebook");
+        }
+        if (buffer.getInt(4) != FORMAT) throw new IOException("Unsupported phrasebook format " + buffer.getInt(4));
+        this.version = buffer.getLong(8);
+        this.size = buffer.getInt(16);
+        this.root = buffer.getInt(20);
+        if (root < HEADER_SIZE || root >= buffer.capacity()) throw new IOException("Corrupt phrasebook");
+    }
+
+    /**
+     * Map a whole phrasebook file
+     */
+    public static Phrasebook open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return map(raf.getChannel(), 0, raf.length());
+        }
+    }
+
+    /**
+     * Map a phrasebook stored at offset in a larger file, e.g. an uncompressed
+     * APK asset. The mapping stays valid after the channel is closed.
+     */
+    public static Phrasebook map(FileChannel channel, long offset, long length) throws IOException {
+        return new Phrasebook(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+
+    /**
+     * Phrasebook over bytes already in memory
+     */
+    public static Phrasebook wrap(ByteBuffer buffer) throws IOException {
+        return new Phrasebook(buffer.slice());
+    }
+
+    /**
+     * Check a downloaded file's header and checksum before it replaces the current one
+     *
+     * @return the file's table version
+     */
+    public static long verify(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            ByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            Phrasebook phrasebook = new Phrasebook(buffer);
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.position(HEADER_SIZE);
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(24)) throw new IOException("Phrasebook checksum mismatch");
+            return phrasebook.version;
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Translation of text into to, or null if the phrase is not in the table.
+     * Case, surrounding punctuation and repeated whitespace are ignored.
+     */
+    public String lookup(String text, String to) {
+        byte[] key = key(text, to).getBytes(StandardCharsets.UTF_8);
+        int node = root;
+        int i = 0;
+        while (true) {
+            int run = buffer.get(node + 4) & 0xff;
+            if (key.length - i < run) return null;
+            for (int j = 0; j < run; j++) {
+                if (buffer.get(node + 5 + j) != key[i++]) return null;
+            }
+            if (i == key.length) break;
+            node = child(node + 5 + run, key[i++] & 0xff);
+            if (node < 0) return null;
+        }
+
+        int value = buffer.getInt(node);
+        if (value < 0) return null;
+        int length = buffer.getShort(value) & 0xffff;
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(value + 2);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Offset of the child for label in the child list at offset, or -1
+     */
+    private int child(int offset, int label) {
+        int count = buffer.getShort(offset) & 0xffff;
+        int children = offset + 2;
+        int low = 0, high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = children + mid * 5;
+            int midLabel = buffer.get(entry) & 0xff;
+            if (midLabel < label) {
+                low = mid + 1;
+            } else if (midLabel > label) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(entry + 1);
+            }
+        }
+        return -1;
+    }
+
+    static String key(String text, String to) {
+        return to.trim().toLowerCase(Locale.ROOT) + KEY_SEPARATOR + normalize(text);
+    }
+
+    /**
+     * "  Where is   the station? " and "where is the station" are the same phrase
+     */
+    static String normalize(String text) {
+        if (!Normalizer.isNormalized(text, Normalizer.Form.NFC)) {
+            text = Normalizer.normalize(text, Normalizer.Form.NFC);
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+
+        // One pass instead of regexes: this runs on every keystroke in live mode
+        int start = 0, end = lower.length();
+        while (start < end && isEdge(lower.charAt(start))) start++;
+        while (end > start && isEdge(lower.charAt(end - 1))) end--;
+
+        StringBuilder sb = new StringBuilder(end - start);
+        boolean space = false;
+        for (int i = start; i < end; i++) {
+            char c = lower.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) sb.append(' ');
+            space = false;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static boolean isEdge(char c) {
+        if (Character.isWhitespace(c)) return true;
+        switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
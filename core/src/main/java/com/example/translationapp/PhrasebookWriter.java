@@ -0,0 +1,175 @@
+package com.example.translationapp;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Packs phrases into the binary trie read by {@link Phrasebook}. Also runs
+ * as a command-line tool (the :core packPhrasebook task) turning the
+ * bundled TSV source into the app asset:
+ *
+ * <pre>
+ *   {@literal @}version 3
+ *   # target language, phrase, translation
+ *   Darija	thank you	shukran
+ * </pre>
+ */
+public class PhrasebookWriter {
+
+    private static final int MAX_VALUE_BYTES = 0xffff;
+    private static final int MAX_RUN = 0xff;
+
+    private final Node root = new Node();
+    private int size;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PhrasebookWriter <phrases.tsv> <phrasebook.bin>");
+            System.exit(2);
+        }
+        PhrasebookWriter writer = new PhrasebookWriter();
+        long version = writer.addTsv(new File(args[0]));
+        writer.write(new File(args[1]), version);
+        System.out.println("Packed " + writer.size + " phrases, version " + version + ", into " + args[1]);
+    }
+
+    /**
+     * Add a phrase; a later translation of the same normalized phrase replaces the earlier one
+     */
+    public void add(String text, String to, String translation) {
+        byte[] value = translation.getBytes(StandardCharsets.UTF_8);
+        if (value.length > MAX_VALUE_BYTES) throw new IllegalArgumentException("Translation too long: " + text);
+
+        Node node = root;
+        for (byte label : Phrasebook.key(text, to).getBytes(StandardCharsets.UTF_8)) {
+            node = node.children.computeIfAbsent(label & 0xff, key -> new Node());
+        }
+        if (node.value == null) size++;
+        node.value = value;
+    }
+
+    /**
+     * @return the version declared by the file's "@version" line
+     */
+    long addTsv(File tsv) throws IOException {
+        long version = -1;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(tsv), StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.trim().isEmpty() || line.startsWith("#")) continue;
+                if (line.startsWith("@version")) {
+                    version = Long.parseLong(line.substring("@version".length()).trim());
+                    continue;
+                }
+                String[] columns = line.split("\t");
+                if (columns.length != 3) throw new IOException(tsv + ":" + number + ": expected 3 columns");
+                add(columns[1], columns[0], columns[2]);
+            }
+        }
+        if (version < 0) throw new IOException(tsv + ": missing @version line");
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void write(File file, long version) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(toBytes(version));
+        }
+    }
+
+    public byte[] toBytes(long version) {
+        // Breadth-first so a lookup's first few nodes sit on the same pages
+        List<Node> nodes = new ArrayList<>();
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(compress(root));
+        int offset = Phrasebook.HEADER_SIZE;
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.offset = offset;
+            offset += 4 + 1 + node.run.length + 2 + 5 * node.children.size();
+            nodes.add(node);
+            for (Node child : node.children.values()) queue.add(compress(child));
+        }
+        for (Node node : nodes) {
+            if (node.value == null) continue;
+            node.valueOffset = offset;
+            offset += 2 + node.value.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(offset);
+        buffer.putInt(Phrasebook.MAGIC)
+                .putInt(Phrasebook.FORMAT)
+                .putLong(version)
+                .putInt(size)
+                .putInt(root.offset)
+                .putInt(0)
+                .putInt(0);
+        for (Node node : nodes) {
+            buffer.putInt(node.value != null ? node.valueOffset : -1);
+            buffer.put((byte) node.run.length);
+            buffer.put(node.run);
+            buffer.putShort((short) node.children.size());
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                buffer.put((byte) (int) child.getKey());
+                buffer.putInt(child.getValue().offset);
+            }
+        }
+        for (Node node : nodes) {
+            if (node.value == null) continue;
+            buffer.putShort((short) node.value.length);
+            buffer.put(node.value);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), Phrasebook.HEADER_SIZE, offset - Phrasebook.HEADER_SIZE);
+        buffer.putInt(24, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Fold node's chain of valueless single children into its run of bytes
+     */
+    private static Node compress(Node node) {
+        if (node.run.length > 0) return node;
+        ByteArrayOutputStream run = new ByteArrayOutputStream();
+        while (node.value == null && node.children.size() == 1 && run.size() < MAX_RUN) {
+            Map.Entry<Integer, Node> only = node.children.firstEntry();
+            run.write(only.getKey());
+            node.value = only.getValue().value;
+            node.children = only.getValue().children;
+        }
+        node.run = run.toByteArray();
+        return node;
+    }
+
+    private static class Node {
+        // Sorted by unsigned label, the order lookups binary-search in
+        TreeMap<Integer, Node> children = new TreeMap<>();
+        byte[] run = new byte[0];
+        byte[] value;
+        int offset;
+        int valueOffset;
+    }
+}
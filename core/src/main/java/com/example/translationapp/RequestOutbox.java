@@ -0,0 +1,360 @@
+package com.example.translationapp;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+/**
+ * Durable queue of requests that could not be sent, replayed in order once
+ * the network is back. Each entry is one fsynced file named after its
+ * sequence number, so the queue survives process death and is read back in
+ * the order it was written.
+ *
+ * Ordering: consecutive ordinary entries are sent together as one batch,
+ * in any order among themselves. A barrier entry (e.g. clearing history)
+ * is sent alone, only after everything queued before it has been
+ * delivered or dropped, and nothing queued after it is sent before it.
+ * Every entry carries an idempotency key that stays the same across
+ * replays, so the server can ignore duplicates.
+ *
+ * Only answers from the server (408, 429, 5xx) use up an entry's attempts;
+ * a call that never got an answer, e.g. because the network dropped or a
+ * circuit breaker refused it, leaves the entry as it was.
+ */
+public class RequestOutbox {
+
+    public interface Handler {
+        /**
+         * The call that delivers entry; should send {@link Entry#getIdempotencyKey()} along
+         */
+        Call newCall(Entry entry);
+
+        /**
+         * entry got a successful response; it is removed from the queue whatever this does
+         */
+        void onDelivered(Entry entry, Response response) throws IOException;
+
+        /**
+         * entry was rejected by the server or ran out of attempts and is removed
+         */
+        void onDropped(Entry entry, String reason);
+    }
+
+    private static final String SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Gson gson = new Gson();
+    // Only one flush at a time; enqueue does not wait for it
+    private final Object flushLock = new Object();
+
+    private long nextSequence = -1;
+
+    public RequestOutbox(File directory, int batchSize, int maxAttempts) {
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Persist a request for later. Returns once it is on disk.
+     *
+     * @param barrier true if the request must not be reordered with any other
+     */
+    public Entry enqueue(String type, Map<String, String> params, boolean barrier) throws IOException {
+        Entry entry = new Entry(UUID.randomUUID().toString(), type, new LinkedHashMap<>(params),
+                barrier, System.currentTimeMillis());
+        synchronized (this) {
+            if (nextSequence < 0) nextSequence = lastSequence() + 1;
+            entry.sequence = nextSequence++;
+            write(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Queued entries, oldest first. An entry that cannot be parsed is
+     * deleted; one that cannot be read right now fails the whole call.
+     */
+    public synchronized List<Entry> pending() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) return new ArrayList<>();
+        Arrays.sort(files);
+
+        List<Entry> entries = new ArrayList<>(files.length);
+        for (File file : files) {
+            Entry entry = read(file);
+            if (entry != null) entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Drop every queued entry, e.g. when its user logs out. Calls already
+     * sent still complete, but nothing is retried.
+     */
+    public synchronized void clear() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) return;
+        for (File file : files) file.delete();
+    }
+
+    public int size() {
+        String[] names = directory.list((dir, name) -> name.endsWith(SUFFIX));
+        return names != null ? names.length : 0;
+    }
+
+    /**
+     * Send queued entries batch by batch until the queue is empty or a batch
+     * hits a failure worth retrying later. Blocks, so call it off the main thread.
+     *
+     * @return true if the queue was drained
+     */
+    public boolean flush(Handler handler) throws InterruptedException {
+        synchronized (flushLock) {
+            while (true) {
+                List<Entry> entries;
+                try {
+                    entries = pending();
+                } catch (IOException e) {
+                    // Left on disk for the next flush
+                    return false;
+                }
+                if (entries.isEmpty()) return true;
+                if (!send(nextBatch(entries), handler)) return false;
+            }
+        }
+    }
+
+    /**
+     * A barrier alone, or the ordinary entries in front of the next barrier
+     */
+    static List<Entry> nextBatch(List<Entry> entries) {
+        Entry head = entries.get(0);
+        if (head.barrier) return Collections.singletonList(head);
+
+        List<Entry> batch = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.barrier) break;
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    /**
+     * @return false if an entry of the batch is still queued
+     */
+    private boolean send(List<Entry> entries, Handler handler) throws InterruptedException {
+        boolean complete = true;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Entry> batch = entries.subList(from, Math.min(entries.size(), from + batchSize));
+            CountDownLatch done = new CountDownLatch(batch.size());
+            boolean[] retry = new boolean[batch.size()];
+            // Whether the server answered, as opposed to the call failing before it could
+            boolean[] answered = new boolean[batch.size()];
+            List<Call> calls = new ArrayList<>(batch.size());
+
+            for (int i = 0; i < batch.size(); i++) {
+                Entry entry = batch.get(i);
+                int index = i;
+                Call call = handler.newCall(entry);
+                calls.add(call);
+                call.enqueue(new Callback() {
+                    @Override
+                    public void onFailure(Call c, IOException e) {
+                        retry[index] = true;
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onResponse(Call c, Response response) {
+                        try (Response r = response) {
+                            answered[index] = true;
+                            retry[index] = !deliver(entry, r, handler);
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                });
+            }
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                for (Call call : calls) call.cancel();
+                throw e;
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (retry[i] && !retryLater(batch.get(i), answered[i], handler)) complete = false;
+            }
+            if (!complete) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the response asks for a later retry
+     */
+    private boolean deliver(Entry entry, Response response, Handler handler) {
+        int code = response.code();
+        if (response.isSuccessful()) {
+            try {
+                handler.onDelivered(entry, response);
+            } catch (IOException e) {
+                // Delivered all the same; replaying would not give a better answer
+            }
+            remove(entry);
+            return true;
+        }
+        if (code == 408 || code == 429 || code >= 500) return false;
+
+        remove(entry);
+        handler.onDropped(entry, "HTTP " + code);
+        return true;
+    }
+
+    /**
+     * @param answered true if the server answered; only then does this count as an attempt
+     * @return true if entry left the queue because it ran out of attempts
+     */
+    private boolean retryLater(Entry entry, boolean answered, Handler handler) {
+        if (!answered) return false;
+        entry.attempts++;
+        if (entry.attempts >= maxAttempts) {
+            remove(entry);
+            handler.onDropped(entry, "Gave up after " + entry.attempts + " attempts");
+            return true;
+        }
+        synchronized (this) {
+            // Cleared while it was being sent
+            if (!fileFor(entry.sequence).exists()) return false;
+            try {
+                write(entry);
+            } catch (IOException e) {
+                // The old attempt count stays on disk; the entry itself is kept
+            }
+        }
+        return false;
+    }
+
+    private synchronized void remove(Entry entry) {
+        fileFor(entry.sequence).delete();
+    }
+
+    private long lastSequence() {
+        long last = 0;
+        File[] files = directory.listFiles();
+        if (files == null) return last;
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(TEMP_SUFFIX)) {
+                // Interrupted write; its entry was never acknowledged
+                file.delete();
+            } else if (name.endsWith(SUFFIX)) {
+                try {
+                    last = Math.max(last, Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return last;
+    }
+
+    private void write(Entry entry) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) throw new IOException("Cannot create " + directory);
+
+        File file = fileFor(entry.sequence);
+        File tmp = new File(directory, file.getName() + TEMP_SUFFIX);
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(entry, writer);
+            writer.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Could not store outbox entry");
+        }
+    }
+
+    /**
+     * @return null if the file holds no valid entry; it is deleted, as no replay could deliver it
+     */
+    private Entry read(File file) throws IOException {
+        Entry entry;
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            entry = gson.fromJson(reader, Entry.class);
+        } catch (JsonIOException e) {
+            throw new IOException("Could not read " + file.getName(), e);
+        } catch (JsonParseException e) {
+            entry = null;
+        }
+        if (entry != null && entry.type != null && entry.idempotencyKey != null) {
+            String name = file.getName();
+            try {
+                entry.sequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                return entry;
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        file.delete();
+        return null;
+    }
+
+    private File fileFor(long sequence) {
+        // Zero-padded so names sort in sequence order
+        return new File(directory, String.format("%019d", sequence) + SUFFIX);
+    }
+
+    public static class Entry {
+        private transient long sequence;
+        private final String idempotencyKey;
+        private final String type;
+        private final Map<String, String> params;
+        private final boolean barrier;
+        private final long createdAt;
+        private int attempts;
+
+        Entry(String idempotencyKey, String type, Map<String, String> params, boolean barrier, long createdAt) {
+            this.idempotencyKey = idempotencyKey;
+            this.type = type;
+            this.params = params;
+            this.barrier = barrier;
+            this.createdAt = createdAt;
+        }
+
+        public String getIdempotencyKey() { return idempotencyKey; }
+        public String getType() { return type; }
+        public String getParam(String name) { return params != null ? params.get(name) : null; }
+        public boolean isBarrier() { return barrier; }
+        public long getCreatedAt() { return createdAt; }
+        public int getAttempts() { return attempts; }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.translationapp;
+
+import okhttp3.Request;
+
+/**
+ * Per-request hints for the resilience interceptors, attached as a request
+ * tag. Without one, GET, HEAD, PUT and DELETE count as idempotent and the
+ * request is never hedged.
+ */
+public final class RequestPolicy {
+
+    private final boolean idempotent;
+    private final Request hedgeRequest;
+
+    private RequestPolicy(boolean idempotent, Request hedgeRequest) {
+        this.idempotent = idempotent;
+        this.hedgeRequest = hedgeRequest;
+    }
+
+    /**
+     * @param idempotent false if sending the request twice has a visible effect
+     * @param hedgeRequest safe-to-duplicate copy to race against a slow original, or null
+     */
+    public static RequestPolicy of(boolean idempotent, Request hedgeRequest) {
+        return new RequestPolicy(idempotent, hedgeRequest);
+    }
+
+    static boolean isIdempotent(Request request) {
+        RequestPolicy policy = request.tag(RequestPolicy.class);
+        if (policy != null) return policy.idempotent;
+        String method = request.method();
+        return method.equals("GET") || method.equals("HEAD") || method.equals("PUT") || method.equals("DELETE");
+    }
+
+    static Request hedgeRequest(Request request) {
+        RequestPolicy policy = request.tag(RequestPolicy.class);
+        return policy != null ? policy.hedgeRequest : null;
+    }
+}
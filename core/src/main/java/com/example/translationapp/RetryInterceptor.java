@@ -0,0 +1,103 @@
+package com.example.translationapp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries failed calls with capped exponential backoff and full jitter.
+ * Idempotent requests are retried on any I/O error and on 429, 502, 503 and
+ * 504. Other requests are only retried when the server cannot have acted on
+ * them: the connection was never made, or it answered 429 or 503.
+ */
+public class RetryInterceptor implements Interceptor {
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public RetryInterceptor(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean idempotent = RequestPolicy.isIdempotent(request);
+
+        for (int attempt = 1; ; attempt++) {
+            long delay;
+            try {
+                Response response = chain.proceed(request);
+                if (attempt >= maxAttempts || !isRetryable(response.code(), idempotent)) return response;
+                delay = retryAfterMillis(response);
+                response.close();
+            } catch (IOException e) {
+                if (attempt >= maxAttempts || chain.call().isCanceled() || !isRetryable(e, idempotent)) throw e;
+                delay = -1;
+            }
+
+            sleep(delay >= 0 ? Math.min(delay, maxDelayMillis) : backoffMillis(attempt));
+            if (chain.call().isCanceled()) throw new IOException("Canceled");
+        }
+    }
+
+    /**
+     * Random delay in [0, min(max, base * 2^(attempt - 1))]
+     */
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isRetryable(int code, boolean idempotent) {
+        if (code == 429 || code == 503) return true;
+        return idempotent && (code == 502 || code == 504);
+    }
+
+    private static boolean isRetryable(IOException e, boolean idempotent) {
+        if (e instanceof CircuitOpenException) return false;
+        if (isConnectFailure(e)) return true;
+        // Cancellation and the overall call timeout arrive as InterruptedIOException too
+        if (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException)) return false;
+        return idempotent;
+    }
+
+    /**
+     * True if the connection was never made, so the server cannot have seen the request
+     */
+    public static boolean isConnectFailure(IOException e) {
+        return e instanceof ConnectException || e instanceof UnknownHostException
+                || e instanceof NoRouteToHostException;
+    }
+
+    private static long retryAfterMillis(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) return -1;
+        try {
+            return Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            // HTTP-date form is not worth parsing here
+            return -1;
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+    }
+}
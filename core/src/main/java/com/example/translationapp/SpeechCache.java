@@ -0,0 +1,139 @@
+package com.example.translationapp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Files produced by on-device speech synthesis, keyed by (text, locale,
+ * voice) so a replayed phrase is played from disk instead of synthesized
+ * again. Evicted least recently used first once the byte budget is exceeded.
+ */
+public class SpeechCache {
+
+    private static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+    private static final String SUFFIX = ".wav";
+    private static final String TEMP_SUFFIX = ".part";
+    // Temp files younger than this may still be being written by the engine
+    private static final long ORPHAN_AGE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static volatile SpeechCache instance;
+
+    private final File directory;
+    private final long maxBytes;
+
+    public static SpeechCache getInstance(File cacheDir) {
+        if (instance == null) {
+            synchronized (SpeechCache.class) {
+                if (instance == null) {
+                    instance = new SpeechCache(new File(cacheDir, "speech"), DEFAULT_MAX_BYTES);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public SpeechCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Cached synthesis of text, or null. Marks a hit as recently used.
+     */
+    public File get(String text, String locale, String voice) {
+        File file = fileFor(text, locale, voice);
+        if (!file.exists() || file.length() == 0) return null;
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * Fresh file for the engine to synthesize into before {@link #commit}
+     */
+    public File newTempFile() {
+        if (!directory.exists()) directory.mkdirs();
+        return new File(directory, "speech_" + System.nanoTime() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Store a finished synthesis under its key.
+     *
+     * @return the cached file, or null if tempFile was empty
+     */
+    public File commit(File tempFile, String text, String locale, String voice) throws IOException {
+        if (!tempFile.exists() || tempFile.length() == 0) {
+            tempFile.delete();
+            return null;
+        }
+
+        File target = fileFor(text, locale, voice);
+        synchronized (this) {
+            target.delete();
+            if (!tempFile.renameTo(target)) {
+                tempFile.delete();
+                throw new IOException("Could not store synthesized speech");
+            }
+            trim(target);
+        }
+        return target;
+    }
+
+    /**
+     * Same phrase regardless of surrounding or repeated whitespace; case is kept
+     * because it can change how a phrase is spoken
+     */
+    static String key(String text, String locale, String voice) {
+        String normalizedText = Normalizer.normalize(text, Normalizer.Form.NFC)
+                .trim()
+                .replaceAll("\\s+", " ");
+        return locale + '|' + (voice != null ? voice : "") + '|' + normalizedText;
+    }
+
+    private File fileFor(String text, String locale, String voice) {
+        return new File(directory, sha256(key(text, locale, voice)) + SUFFIX);
+    }
+
+    private void trim(File keep) {
+        // Synthesis interrupted by process death leaves its temp file behind
+        long now = System.currentTimeMillis();
+        File[] orphans = directory.listFiles((dir, name) -> name.endsWith(TEMP_SUFFIX));
+        if (orphans != null) {
+            for (File orphan : orphans) {
+                if (now - orphan.lastModified() > ORPHAN_AGE_MILLIS) orphan.delete();
+            }
+        }
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) return;
+
+        long total = 0;
+        for (File file : files) total += file.length();
+        if (total <= maxBytes) return;
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= maxBytes) break;
+            if (file.equals(keep)) continue;
+            long length = file.length();
+            if (file.delete()) total -= length;
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
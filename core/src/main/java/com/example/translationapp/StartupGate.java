@@ -0,0 +1,79 @@
+package com.example.translationapp;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the splash screen until a fixed set of startup phases has finished,
+ * or until a timeout so a slow network never blocks the app. Records how
+ * long each phase took from {@link #start}.
+ */
+public class StartupGate {
+
+    public interface Listener {
+        /**
+         * Called once, on the thread that finished the last phase or on the timer thread
+         *
+         * @param phaseMillis duration of each finished phase, in the order given
+         * @param timedOut true if some phase had not finished in time
+         */
+        void onReady(Map<String, Long> phaseMillis, boolean timedOut);
+    }
+
+    private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+    private final Listener listener;
+    private int remaining;
+    private long startNanos;
+    private ScheduledFuture<?> timeout;
+    private boolean done;
+
+    public StartupGate(Listener listener, String... phases) {
+        this.listener = listener;
+        for (String phase : phases) phaseMillis.put(phase, null);
+        this.remaining = phaseMillis.size();
+    }
+
+    /**
+     * Start the clock, before kicking off the phases; the listener fires after
+     * timeoutMillis at the latest
+     */
+    public void start(ScheduledExecutorService timer, long timeoutMillis) {
+        synchronized (this) {
+            startNanos = System.nanoTime();
+            if (remaining > 0) {
+                timeout = timer.schedule(() -> finish(true), timeoutMillis, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+        finish(false);
+    }
+
+    /**
+     * Mark a phase finished, successfully or not. Unknown or repeated phases are ignored.
+     */
+    public void complete(String phase) {
+        synchronized (this) {
+            if (done || !phaseMillis.containsKey(phase) || phaseMillis.get(phase) != null) return;
+            phaseMillis.put(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            if (--remaining > 0) return;
+        }
+        finish(false);
+    }
+
+    private void finish(boolean timedOut) {
+        Map<String, Long> finished = new LinkedHashMap<>();
+        synchronized (this) {
+            if (done) return;
+            done = true;
+            if (timeout != null) timeout.cancel(false);
+            for (Map.Entry<String, Long> entry : phaseMillis.entrySet()) {
+                if (entry.getValue() != null) finished.put(entry.getKey(), entry.getValue());
+            }
+        }
+        listener.onReady(Collections.unmodifiableMap(finished), timedOut);
+    }
+}
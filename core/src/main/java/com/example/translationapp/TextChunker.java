@@ -0,0 +1,108 @@
+package com.example.translationapp;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits a long text into pieces that can be translated on their own.
+ * A chunk never spans a paragraph break (a blank line) and holds as many
+ * whole sentences as fit in the size limit; only a sentence longer than
+ * the limit is cut, between words where possible. Each chunk keeps the
+ * whitespace that followed it, so joining translations with
+ * {@link Chunk#getSeparator()} restores the original layout.
+ */
+public class TextChunker {
+
+    public static class Chunk {
+        private final String text;
+        private final String separator;
+
+        Chunk(String text, String separator) {
+            this.text = text;
+            this.separator = separator;
+        }
+
+        /**
+         * Content without surrounding whitespace
+         */
+        public String getText() { return text; }
+
+        /**
+         * Whitespace between this chunk and the next; empty after the last one
+         */
+        public String getSeparator() { return separator; }
+    }
+
+    private final int maxChars;
+
+    public TextChunker(int maxChars) {
+        if (maxChars < 1) throw new IllegalArgumentException("maxChars must be positive");
+        this.maxChars = maxChars;
+    }
+
+    public List<Chunk> split(String text) {
+        List<Chunk> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        // Whitespace after what is in current, kept as the separator if a chunk ends there
+        String pending = "";
+
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ROOT);
+        sentences.setText(text);
+        int start = sentences.first();
+        for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+            int bodyStart = start;
+            while (bodyStart < end && Character.isWhitespace(text.charAt(bodyStart))) bodyStart++;
+            if (bodyStart == end) {
+                // Whitespace only, e.g. a line break split off on its own: it widens the gap
+                pending += text.substring(start, end);
+                continue;
+            }
+            int bodyEnd = end;
+            while (Character.isWhitespace(text.charAt(bodyEnd - 1))) bodyEnd--;
+
+            String sentence = text.substring(bodyStart, bodyEnd);
+            if (current.length() > 0 && (isParagraphBreak(pending)
+                    || current.length() + pending.length() + sentence.length() > maxChars)) {
+                chunks.add(new Chunk(current.toString(), pending));
+                current.setLength(0);
+            }
+            if (current.length() > 0) current.append(pending);
+            current.append(sentence);
+            while (current.length() > maxChars) {
+                int cut = cutPoint(current);
+                int next = cut;
+                while (next < current.length() && Character.isWhitespace(current.charAt(next))) next++;
+                chunks.add(new Chunk(current.substring(0, cut), current.substring(cut, next)));
+                current.delete(0, next);
+            }
+            pending = text.substring(bodyEnd, end);
+        }
+        if (current.length() > 0) chunks.add(new Chunk(current.toString(), ""));
+        return chunks;
+    }
+
+    /**
+     * Where to cut an over-long run: after the last space that fits, else at the limit
+     */
+    private int cutPoint(CharSequence run) {
+        for (int i = maxChars; i > 0; i--) {
+            if (!Character.isWhitespace(run.charAt(i))) continue;
+            while (i > 1 && Character.isWhitespace(run.charAt(i - 1))) i--;
+            return i;
+        }
+        int cut = maxChars;
+        // Keep surrogate pairs together
+        if (Character.isLowSurrogate(run.charAt(cut)) && Character.isHighSurrogate(run.charAt(cut - 1))) cut--;
+        return cut;
+    }
+
+    private static boolean isParagraphBreak(String whitespace) {
+        int newlines = 0;
+        for (int i = 0; i < whitespace.length(); i++) {
+            if (whitespace.charAt(i) == '\n' && ++newlines == 2) return true;
+        }
+        return false;
+    }
+}
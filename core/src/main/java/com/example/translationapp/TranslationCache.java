@@ -0,0 +1,262 @@
+package com.example.translationapp;
+
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache of translation results: an in-memory LRU in front of a
+ * bounded directory of JSON files. Entries are keyed by normalized
+ * (text, target language, includeAudio) and expire after a fixed TTL.
+ */
+public class TranslationCache {
+
+    private static final long DEFAULT_MEMORY_BYTES = 1024L * 1024;
+    private static final long DEFAULT_DISK_BYTES = 5L * 1024 * 1024;
+    private static final long DEFAULT_TTL_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static volatile TranslationCache instance;
+
+    private final File directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final long ttlMillis;
+    private final Gson gson = new Gson();
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Process-wide cache stored under the given cache directory
+     */
+    public static TranslationCache getInstance(File cacheDir) {
+        if (instance == null) {
+            synchronized (TranslationCache.class) {
+                if (instance == null) {
+                    instance = new TranslationCache(new File(cacheDir, "translations"),
+                            DEFAULT_MEMORY_BYTES, DEFAULT_DISK_BYTES, DEFAULT_TTL_MILLIS);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public TranslationCache(File directory, long maxMemoryBytes, long maxDiskBytes, long ttlMillis) {
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Look up a result, memory first then disk. Returns null on a miss or an expired entry.
+     * May touch the disk, so call it off the main thread.
+     */
+    public Entry get(String text, String to, boolean includeAudio) {
+        String key = key(text, to, includeAudio);
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (!entry.isExpired(now, ttlMillis)) {
+                    memoryHits.incrementAndGet();
+                    return entry;
+                }
+                removeFromMemory(key);
+            }
+        }
+
+        Entry entry = readFromDisk(key, now);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        diskHits.incrementAndGet();
+        synchronized (this) {
+            putInMemory(key, entry);
+        }
+        return entry;
+    }
+
+    public void put(String text, String to, boolean includeAudio, String translation, File audioFile) {
+        String key = key(text, to, includeAudio);
+        String audioPath = audioFile != null ? audioFile.getAbsolutePath() : null;
+        Entry entry = new Entry(key, translation, audioPath, System.currentTimeMillis());
+        synchronized (this) {
+            putInMemory(key, entry);
+        }
+        writeToDisk(key, entry);
+    }
+
+    public synchronized void clear() {
+        memory.clear();
+        memoryBytes = 0;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+    }
+
+    public long getMemoryHits() { return memoryHits.get(); }
+    public long getDiskHits() { return diskHits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    /**
+     * Normalized cache key: trimmed, whitespace-collapsed text and case-folded
+     * language. The text keeps its case, as "US" and "us" translate differently.
+     */
+    static String key(String text, String to, boolean includeAudio) {
+        String normalizedText = Normalizer.normalize(text, Normalizer.Form.NFC)
+                .trim()
+                .replaceAll("\\s+", " ");
+        return to.trim().toLowerCase(Locale.ROOT) + '|' + (includeAudio ? '1' : '0') + '|' + normalizedText;
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        removeFromMemory(key);
+        memory.put(key, entry);
+        memoryBytes += entry.weight();
+
+        // Access-ordered map: the iterator starts at the least recently used entry
+        Iterator<Map.Entry<String, Entry>> it = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            memoryBytes -= eldest.getValue().weight();
+            it.remove();
+        }
+    }
+
+    private void removeFromMemory(String key) {
+        Entry old = memory.remove(key);
+        if (old != null) memoryBytes -= old.weight();
+    }
+
+    private Entry readFromDisk(String key, long now) {
+        File file = fileFor(key);
+        if (!file.exists()) return null;
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            Entry entry = gson.fromJson(reader, Entry.class);
+            if (entry == null || !key.equals(entry.key) || entry.isExpired(now, ttlMillis)) {
+                file.delete();
+                return null;
+            }
+            // Keep file mtime as the LRU clock for disk eviction
+            file.setLastModified(now);
+            return entry;
+        } catch (Exception e) {
+            file.delete();
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (!directory.exists() && !directory.mkdirs()) return;
+
+        File file = fileFor(key);
+        File tmp = new File(directory, file.getName() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            gson.toJson(entry, writer);
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return;
+        }
+        trimDisk();
+    }
+
+    private synchronized void trimDisk() {
+        File[] files = directory.listFiles();
+        if (files == null) return;
+
+        long total = 0;
+        for (File file : files) total += file.length();
+        if (total <= maxDiskBytes) return;
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= maxDiskBytes) break;
+            long length = file.length();
+            if (file.delete()) total -= length;
+        }
+    }
+
+    private File fileFor(String key) {
+        return new File(directory, sha1(key));
+    }
+
+    private static String sha1(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Entry {
+        private final String key;
+        private final String translation;
+        private final String audioPath;
+        private final long createdAt;
+
+        Entry(String key, String translation, String audioPath, long createdAt) {
+            this.key = key;
+            this.translation = translation;
+            this.audioPath = audioPath;
+            this.createdAt = createdAt;
+        }
+
+        public String getTranslation() { return translation; }
+        /**
+         * Cached audio, or null if there was none or it has since been evicted
+         */
+        public File getAudioFile() {
+            if (audioPath == null) return null;
+            File file = new File(audioPath);
+            return file.exists() ? file : null;
+        }
+        public long getCreatedAt() { return createdAt; }
+
+        boolean isExpired(long now, long ttlMillis) {
+            return now - createdAt > ttlMillis;
+        }
+
+        // Approximate heap cost: two bytes per char
+        long weight() {
+            long chars = key.length() + (translation != null ? translation.length() : 0)
+                    + (audioPath != null ? audioPath.length() : 0);
+            return chars * 2;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.translationapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartReader;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Streaming reader for the /translate response. The "audio" field is
+ * Base64-decoded straight from the response into a file, so the clip is
+ * never held as a String or a byte[]; only "translation" is materialized.
+ * Servers that support it answer with multipart/mixed instead: a JSON part
+ * with the metadata and a raw audio part that is copied to the file as is.
+ *
+ * Without an audio file to write, the response is the small text-only kind:
+ * it is decoded in one go instead of through a Reader and its buffers,
+ * falling back to streaming if it turns out to be large after all.
+ */
+public class TranslationResponseReader {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int SMALL_BODY_BYTES = 16 * 1024;
+
+    public static class Result {
+        private final String translation;
+        private final File audioFile;
+
+        Result(String translation, File audioFile) {
+            this.translation = translation;
+            this.audioFile = audioFile;
+        }
+
+        public String getTranslation() { return translation; }
+
+        /**
+         * Decoded MP3, or null when the response had no audio
+         */
+        public File getAudioFile() { return audioFile; }
+    }
+
+    private final char[] buffer;
+    // Null when buffer already holds the whole body
+    private final Reader reader;
+    private int pos;
+    private int limit;
+
+    private TranslationResponseReader(InputStream body) {
+        this.buffer = new char[BUFFER_SIZE];
+        this.reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+    }
+
+    private TranslationResponseReader(char[] body) {
+        this.buffer = body;
+        this.reader = null;
+        this.limit = body.length;
+    }
+
+    /**
+     * Parse a response body, writing any audio to audioFile.
+     *
+     * @param audioFile where to put the decoded audio; may be null to skip it
+     */
+    public static Result read(InputStream body, File audioFile) throws IOException {
+        if (audioFile != null) return new TranslationResponseReader(body).readObject(audioFile);
+
+        byte[] bytes = new byte[512];
+        int length = 0;
+        while (true) {
+            if (length == bytes.length) {
+                if (length >= SMALL_BODY_BYTES) {
+                    InputStream whole = new SequenceInputStream(new ByteArrayInputStream(bytes), body);
+                    return new TranslationResponseReader(whole).readObject(null);
+                }
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            int n = body.read(bytes, length, bytes.length - length);
+            if (n < 0) break;
+            length += n;
+        }
+        return new TranslationResponseReader(new String(bytes, 0, length, StandardCharsets.UTF_8).toCharArray())
+                .readObject(null);
+    }
+
+    /**
+     * Parse a response body in whichever format the server chose, going by its Content-Type
+     *
+     * @param audioFile where to put the audio; may be null to skip it
+     */
+    public static Result read(ResponseBody body, File audioFile) throws IOException {
+        MediaType type = body.contentType();
+        if (type != null && "multipart".equals(type.type())) {
+            return readMultipart(body, audioFile);
+        }
+        return read(body.byteStream(), audioFile);
+    }
+
+    private static Result readMultipart(ResponseBody body, File audioFile) throws IOException {
+        String translation = null;
+        File audio = null;
+        try (MultipartReader multipart = new MultipartReader(body)) {
+            MultipartReader.Part part;
+            while ((part = multipart.nextPart()) != null) {
+                try (MultipartReader.Part current = part) {
+                    String header = current.headers().get("Content-Type");
+                    MediaType partType = header != null ? MediaType.parse(header) : null;
+                    if (partType != null && "audio".equals(partType.type())) {
+                        if (audioFile != null) audio = copyAudio(current.body(), audioFile);
+                    } else if (partType == null || "json".equals(partType.subtype())) {
+                        translation = read(current.body().inputStream(), null).getTranslation();
+                    }
+                }
+            }
+        }
+        return new Result(translation, audio);
+    }
+
+    private static File copyAudio(BufferedSource source, File audioFile) throws IOException {
+        File parent = audioFile.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+
+        long written;
+        try (BufferedSink sink = Okio.buffer(Okio.sink(audioFile))) {
+            written = sink.writeAll(source);
+        } catch (IOException e) {
+            audioFile.delete();
+            throw e;
+        }
+
+        if (written == 0) {
+            audioFile.delete();
+            return null;
+        }
+        return audioFile;
+    }
+
+    private Result readObject(File audioFile) throws IOException {
+        String translation = null;
+        File audio = null;
+
+        expect('{');
+        if (peekNonWhitespace() == '}') {
+            pos++;
+            return new Result(null, null);
+        }
+        while (true) {
+            expect('"');
+            String name = readString();
+            expect(':');
+            int next = peekNonWhitespace();
+            if (next == '"' && "translation".equals(name)) {
+                pos++;
+                translation = readString();
+            } else if (next == '"' && "audio".equals(name) && audioFile != null) {
+                pos++;
+                audio = decodeAudio(audioFile);
+            } else {
+                skipValue();
+            }
+
+            int c = nextNonWhitespace();
+            if (c == '}') break;
+            if (c != ',') throw syntaxError("',' or '}'", c);
+        }
+        return new Result(translation, audio);
+    }
+
+    private File decodeAudio(File audioFile) throws IOException {
+        File parent = audioFile.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+
+        long written = 0;
+        StringValueStream value = new StringValueStream();
+        // MIME decoder skips the line breaks some servers put in long Base64
+        try (InputStream decoded = Base64.getMimeDecoder().wrap(value);
+             OutputStream out = new FileOutputStream(audioFile)) {
+            byte[] chunk = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = decoded.read(chunk)) != -1) {
+                out.write(chunk, 0, n);
+                written += n;
+            }
+            // The decoder stops at padding; consume up to the closing quote
+            value.skipRest();
+        } catch (IOException | IllegalArgumentException e) {
+            audioFile.delete();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+
+        if (written == 0) {
+            audioFile.delete();
+            return null;
+        }
+        return audioFile;
+    }
+
+    // ---- Minimal JSON scanning ----
+
+    private boolean fill() throws IOException {
+        if (pos < limit) return true;
+        if (reader == null) return false;
+        limit = reader.read(buffer, 0, buffer.length);
+        pos = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private int next() throws IOException {
+        if (!fill()) throw new IOException("Unexpected end of response");
+        return buffer[pos++];
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (fill()) {
+            char c = buffer[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return c;
+            pos++;
+        }
+        throw new IOException("Unexpected end of response");
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c = peekNonWhitespace();
+        pos++;
+        return c;
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = nextNonWhitespace();
+        if (c != expected) throw syntaxError("'" + expected + "'", c);
+    }
+
+    /**
+     * Read the rest of a string whose opening quote was consumed
+     */
+    private String readString() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = next();
+            if (c == '"') return sb.toString();
+            sb.append(c == '\\' ? readEscape() : (char) c);
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = next();
+        switch (c) {
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) throw new IOException("Malformed \\u escape");
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                // '"', '\\' and '/' stand for themselves
+                return (char) c;
+        }
+    }
+
+    private void skipValue() throws IOException {
+        int depth = 0;
+        while (true) {
+            int c = peekNonWhitespace();
+            if (depth == 0 && (c == ',' || c == '}' || c == ']')) return;
+            pos++;
+            if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+            if (depth == 0 && (c == '"' || c == '}' || c == ']')) return;
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            int c = next();
+            if (c == '"') return;
+            if (c == '\\') readEscape();
+        }
+    }
+
+    private IOException syntaxError(String expected, int actual) {
+        return new IOException("Malformed translate response: expected " + expected
+                + " but was '" + (char) actual + "'");
+    }
+
+    /**
+     * Characters of the current JSON string value as ASCII bytes, ending at its closing quote
+     */
+    private class StringValueStream extends InputStream {
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            if (done) return -1;
+            int c = next();
+            if (c == '"') {
+                done = true;
+                return -1;
+            }
+            return c == '\\' ? readEscape() : c;
+        }
+
+        void skipRest() throws IOException {
+            while (read() != -1) {
+                // discard trailing characters
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) return -1;
+            int count = 0;
+            while (count < len) {
+                if (pos >= limit && count > 0) break;
+                if (!fill()) throw new IOException("Unexpected end of response");
+                char c = buffer[pos++];
+                if (c == '"') {
+                    done = true;
+                    break;
+                }
+                b[off + count++] = (byte) (c == '\\' ? readEscape() : c);
+            }
+            return count == 0 && done ? -1 : count;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.translationapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class AudioCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void identicalClipsShareOneFile() throws Exception {
+        AudioCache cache = new AudioCache(new File(folder.getRoot(), "audio"), 1 << 20);
+
+        File first = cache.commit(write(cache.newTempFile(), 100, (byte) 1));
+        File second = cache.commit(write(cache.newTempFile(), 100, (byte) 1));
+
+        assertEquals(first, second);
+        assertTrue(first.getName().matches("[0-9a-f]{64}\\.mp3"));
+        assertEquals(1, first.getParentFile().listFiles().length);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedOverBudget() throws Exception {
+        AudioCache cache = new AudioCache(new File(folder.getRoot(), "audio"), 250);
+
+        File a = cache.commit(write(cache.newTempFile(), 100, (byte) 1));
+        a.setLastModified(System.currentTimeMillis() - 20_000);
+        File b = cache.commit(write(cache.newTempFile(), 100, (byte) 2));
+        b.setLastModified(System.currentTimeMillis() - 10_000);
+        // Replaying a makes b the eldest
+        cache.touch(a);
+        File c = cache.commit(write(cache.newTempFile(), 100, (byte) 3));
+
+        assertTrue(a.exists());
+        assertFalse(b.exists());
+        assertTrue(c.exists());
+    }
+
+    @Test
+    public void sweepRemovesOrphansAndLegacyTempFiles() throws Exception {
+        File dir = new File(folder.getRoot(), "audio");
+        AudioCache cache = new AudioCache(dir, 1 << 20);
+        File kept = cache.commit(write(cache.newTempFile(), 10, (byte) 1));
+
+        File staleTemp = write(cache.newTempFile(), 10, (byte) 2);
+        staleTemp.setLastModified(System.currentTimeMillis() - 120_000);
+        File freshTemp = write(cache.newTempFile(), 10, (byte) 3);
+        File stray = write(new File(dir, "audio_123.mp3"), 10, (byte) 4);
+        File legacy = write(new File(folder.getRoot(), "audio456.mp3"), 10, (byte) 5);
+
+        cache.sweepOnce();
+
+        assertTrue(kept.exists());
+        assertTrue(freshTemp.exists());
+        assertFalse(staleTemp.exists());
+        assertFalse(stray.exists());
+        assertFalse(legacy.exists());
+    }
+
+    private static File write(File file, int size, byte value) throws Exception {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, value);
+        Files.write(file.toPath(), bytes);
+        return file;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class ChunkedTranslatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private TranslationCache cache;
+    private final OkHttpClient client = new OkHttpClient();
+    private final List<String> progress = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<String> outcome = new LinkedBlockingQueue<>();
+
+    private final ChunkedTranslator.Listener listener = new ChunkedTranslator.Listener() {
+        @Override
+        public void onProgress(String text, int done, int total) {
+            progress.add(done + "/" + total + " " + text);
+        }
+
+        @Override
+        public void onComplete(String translation) {
+            outcome.add(translation);
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+            outcome.add("failed");
+        }
+    };
+
+    /**
+     * Upper-cases the text; "Slow." takes a while and "Broken." fails.
+     * Counts the calls running at once.
+     */
+    private static class UpperCaseDispatcher extends Dispatcher {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            String text = request.getRequestUrl().queryParameter("text");
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                if (text.contains("Slow.")) Thread.sleep(500);
+                Thread.sleep(20);
+                if (text.contains("Broken.")) return new MockResponse().setResponseCode(500);
+                return new MockResponse().setBody("{\"translation\":\"" + text.toUpperCase() + "\"}");
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    private UpperCaseDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        dispatcher = new UpperCaseDispatcher();
+        server = new MockWebServer();
+        server.setDispatcher(dispatcher);
+        server.start();
+        cache = new TranslationCache(folder.newFolder("translations"), 1 << 20, 1 << 20, TimeUnit.DAYS.toMillis(1));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private ChunkedTranslator translator(int maxChunkChars, int maxInFlight) {
+        return new ChunkedTranslator((text, to) -> {
+            HttpUrl url = server.url("/translate").newBuilder()
+                    .addQueryParameter("text", text)
+                    .addQueryParameter("to", to)
+                    .build();
+            return client.newCall(new Request.Builder().url(url).build());
+        }, cache, maxChunkChars, maxInFlight);
+    }
+
+    @Test
+    public void reassemblesChunksInOrder() throws Exception {
+        translator(12, 4).start("One.\n\nTwo. Three.\n\nFour.", "English", listener);
+
+        assertEquals("ONE.\n\nTWO. THREE.\n\nFOUR.", outcome.poll(5, TimeUnit.SECONDS));
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, progress.size());
+    }
+
+    @Test
+    public void showsLaterChunksWhileAnEarlierOneIsSlow() throws Exception {
+        translator(10, 4).start("Slow.\n\nFast.", "English", listener);
+
+        assertEquals("SLOW.\n\nFAST.", outcome.poll(5, TimeUnit.SECONDS));
+        assertEquals("1/2 " + ChunkedTranslator.PENDING + "\n\nFAST.", progress.get(0));
+    }
+
+    @Test
+    public void keepsAtMostMaxInFlightCallsRunning() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 12; i++) text.append("Line ").append(i).append(".\n\n");
+
+        ChunkedTranslator.Job job = translator(100, 3).start(text.toString(), "English", listener);
+
+        assertNotEquals("failed", outcome.poll(5, TimeUnit.SECONDS));
+        assertEquals(12, job.getChunkCount());
+        assertEquals(12, server.getRequestCount());
+        assertTrue(dispatcher.maxRunning.get() <= 3);
+        // Every progress report has more done than the one before
+        for (int i = 0; i < progress.size(); i++) assertTrue(progress.get(i).startsWith((i + 1) + "/12 "));
+    }
+
+    @Test
+    public void answersCachedChunksWithoutRequests() throws Exception {
+        cache.put("One.", "English", false, "uno", null);
+
+        translator(5, 2).start("One. Two.", "English", listener);
+
+        assertEquals("uno TWO.", outcome.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+        assertEquals("TWO.", cache.get("Two.", "English", false).getTranslation());
+    }
+
+    @Test
+    public void failsOnceAndStopsTheRest() throws Exception {
+        StringBuilder text = new StringBuilder("Broken.");
+        for (int i = 0; i < 10; i++) text.append("\n\nLine ").append(i).append('.');
+
+        translator(100, 1).start(text.toString(), "English", listener);
+
+        assertEquals("failed", outcome.poll(5, TimeUnit.SECONDS));
+        assertNull(outcome.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void cancelStopsCallbacks() throws Exception {
+        ChunkedTranslator.Job job = translator(10, 2).start("Slow.\n\nSlow.", "English", listener);
+        job.cancel();
+
+        assertTrue(job.isCancelled());
+        assertNull(outcome.poll(800, TimeUnit.MILLISECONDS));
+        assertTrue(progress.isEmpty());
+    }
+
+    @Test
+    public void completesEmptyTextAtOnce() {
+        translator(10, 2).start("  ", "English", listener);
+
+        assertEquals("", outcome.poll());
+        assertEquals(0, server.getRequestCount());
+    }
+}
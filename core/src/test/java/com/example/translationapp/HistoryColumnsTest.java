@@ -0,0 +1,137 @@
+package com.example.translationapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistoryColumnsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rowsComeBackAsAdded() {
+        HistoryColumns columns = new HistoryColumns();
+        columns.add(new HistoryItem("17", "Where is the station?", "fin kayna lmahatta?", "Darija", "2024-05-20T10:15:30Z"));
+        columns.add(new HistoryItem("local-4f1c", "où est la gare ?", "", "French", "2024-05-21T08:00:00.250"));
+
+        assertEquals(2, columns.size());
+        assertEquals(new HistoryItem("17", "Where is the station?", "fin kayna lmahatta?", "Darija", "2024-05-20T10:15:30Z"),
+                columns.get(0));
+        assertEquals("local-4f1c", columns.getId(1));
+        assertEquals("où est la gare ?", columns.getOriginalText(1).toString());
+        assertEquals("", columns.getTranslatedText(1).toString());
+        assertEquals("2024-05-21T08:00:00.250", columns.get(1).getTimestamp());
+    }
+
+    @Test
+    public void rowLabelsAreSharedPerValue() {
+        HistoryColumns columns = new HistoryColumns();
+        columns.add(new HistoryItem("1", "a", "b", "Darija", "2024-05-20T10:00:00Z"));
+        columns.add(new HistoryItem("2", "c", "d", "French", "2024-05-20T23:59:59.999"));
+        columns.add(new HistoryItem("3", "e", "f", "Darija", "2024-05-21T00:00:00Z"));
+
+        assertEquals(columns.getLanguageCode(0), columns.getLanguageCode(2));
+        assertNotEquals(columns.getLanguageCode(0), columns.getLanguageCode(1));
+        assertEquals("DARIJA", columns.getLanguageLabel(2));
+        assertSame(columns.getLanguageLabel(0), columns.getLanguageLabel(2));
+        assertEquals("2024-05-20", columns.getDateLabel(0));
+        assertSame(columns.getDateLabel(0), columns.getDateLabel(1));
+        assertEquals("2024-05-21", columns.getDateLabel(2));
+    }
+
+    @Test
+    public void datesAreShownAsWritten() {
+        HistoryColumns columns = new HistoryColumns();
+        columns.add(new HistoryItem("1", "a", "b", "Darija", "2024-05-01T00:30:00+02:00"));
+        columns.add(new HistoryItem("2", "c", "d", "Darija", "2025-11-29 10:52:26"));
+        columns.add(new HistoryItem("3", "e", "f", null, "sometime"));
+        columns.add(new HistoryItem("4", "g", "h", "Darija", null));
+
+        // Not moved to the previous day by converting to UTC
+        assertEquals("2024-05-01", columns.getDateLabel(0));
+        assertEquals("2024-05-01T00:30:00+02:00", columns.get(0).getTimestamp());
+        assertEquals("2025-11-29", columns.getDateLabel(1));
+        assertEquals("2025-11-29 10:52:26", columns.getTimestamp(1));
+        assertEquals("sometime", columns.getDateLabel(2));
+        assertEquals("sometime", columns.get(2).getTimestamp());
+        assertEquals("", columns.getTargetLang(2));
+        assertEquals("", columns.getDateLabel(3));
+        assertEquals("", columns.getTimestamp(3));
+    }
+
+    @Test
+    public void takesAnyNumberOfTargetLanguages() {
+        HistoryColumns columns = new HistoryColumns();
+        for (int i = 0; i < 1000; i++) {
+            columns.add(new HistoryItem(String.valueOf(i), "a", "b", "lang" + i, "2024-05-20T10:00:00Z"));
+        }
+
+        assertEquals("lang999", columns.getTargetLang(999));
+        assertEquals("LANG300", columns.getLanguageLabel(300));
+        assertEquals(999, columns.getLanguageCode(999));
+    }
+
+    @Test
+    public void keepsIdsThatAreNotPlainNumbers() {
+        HistoryColumns columns = new HistoryColumns();
+        for (String id : Arrays.asList("0", "007", "123456789012345678", "1234567890123456789", "664f1c2e9b", "-5")) {
+            columns.add(new HistoryItem(id, "a", "b", "Darija", "2024-05-20T10:00:00Z"));
+        }
+
+        assertEquals("0", columns.getId(0));
+        assertEquals("007", columns.getId(1));
+        assertEquals("123456789012345678", columns.getId(2));
+        assertEquals("1234567890123456789", columns.getId(3));
+        assertEquals("664f1c2e9b", columns.getId(4));
+        assertEquals("-5", columns.getId(5));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        HistoryColumns columns = new HistoryColumns();
+        for (int i = 0; i < 5000; i++) {
+            columns.add(new HistoryItem(String.valueOf(i), "hello " + i, "salam " + i, "Darija", "2024-05-20T10:00:00Z"));
+        }
+
+        assertEquals(5000, columns.size());
+        assertEquals("hello 0", columns.getOriginalText(0).toString());
+        assertEquals("salam 4999", columns.getTranslatedText(4999).toString());
+        assertEquals("2500", columns.getId(2500));
+
+        // Still appendable after trimming
+        columns.trimToSize();
+        columns.add(new HistoryItem("5000", "bye", "bslama", "Darija", "2024-05-21T10:00:00Z"));
+        assertEquals("salam 4999", columns.getTranslatedText(4999).toString());
+        assertEquals("bslama", columns.getTranslatedText(5000).toString());
+    }
+
+    @Test
+    public void fillsFromSnapshotIncrementally() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        List<HistoryItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(new HistoryItem(String.valueOf(i), "hello " + i, "salam " + i, "Darija", "2024-05-20T10:00:0" + i + "Z"));
+        }
+        HistorySnapshot.View first = snapshot.rewrite(items.subList(0, 3).iterator());
+        HistoryColumns columns = new HistoryColumns();
+        columns.addAll(first, 0);
+
+        HistorySnapshot.View second = snapshot.append(items.subList(3, 5));
+        columns.addAll(second, columns.size());
+
+        assertEquals(5, columns.size());
+        for (int i = 0; i < 5; i++) assertEquals(items.get(i), columns.get(i));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsRowsOutOfRange() {
+        new HistoryColumns().getOriginalText(0);
+    }
+}
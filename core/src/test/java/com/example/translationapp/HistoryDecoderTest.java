@@ -0,0 +1,56 @@
+package com.example.translationapp;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistoryDecoderTest {
+
+    @Test
+    public void decodesItemsInBatches() throws Exception {
+        StringBuilder json = new StringBuilder("{\"count\":5,\"history\":[");
+        for (int i = 0; i < 5; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i)
+                    .append(",\"originalText\":\"text ").append(i)
+                    .append("\",\"translatedText\":\"nass ").append(i)
+                    .append("\",\"targetLang\":\"Darija\",\"timestamp\":\"2025-11-29 10:52:26\",\"extra\":{\"a\":[1]}}");
+        }
+        json.append("]}");
+
+        List<Integer> batchSizes = new ArrayList<>();
+        List<HistoryItem> items = new ArrayList<>();
+        HistoryDecoder.Result result = HistoryDecoder.decode(new StringReader(json.toString()), 2, batch -> {
+            batchSizes.add(batch.size());
+            items.addAll(batch);
+        });
+
+        assertEquals(5, result.getCount());
+        assertNull(result.getNextCursor());
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals("3", items.get(3).getId());
+        assertEquals("text 3", items.get(3).getOriginalText());
+        assertEquals("nass 3", items.get(3).getTranslatedText());
+        assertEquals("Darija", items.get(3).getTargetLang());
+        assertEquals("2025-11-29 10:52:26", items.get(3).getTimestamp());
+    }
+
+    @Test
+    public void nullFieldsBecomeEmpty() throws Exception {
+        List<HistoryItem> items = HistoryDecoder.decodeAll(new StringReader(
+                "{\"history\":[{\"id\":\"7\",\"originalText\":null,\"translatedText\":\"x\"}]}"));
+
+        assertEquals(1, items.size());
+        assertEquals("", items.get(0).getOriginalText());
+        assertEquals("", items.get(0).getTimestamp());
+    }
+
+    @Test
+    public void missingHistoryIsEmpty() throws Exception {
+        assertTrue(HistoryDecoder.decodeAll(new StringReader("{\"message\":\"none\"}")).isEmpty());
+    }
+}
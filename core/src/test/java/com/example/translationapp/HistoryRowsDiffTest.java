@@ -0,0 +1,131 @@
+package com.example.translationapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistoryRowsDiffTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<HistoryItem> items(int from, int to) {
+        List<HistoryItem> items = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            items.add(new HistoryItem(String.valueOf(i), "hello " + i, "salam " + i, "Darija",
+                    String.format("2024-01-01 00:00:%02d", i)));
+        }
+        return items;
+    }
+
+    /**
+     * Snapshot indices shown, newest first
+     */
+    private static List<Integer> shown(HistorySnapshot.View rows, int[] matches) {
+        List<Integer> shown = new ArrayList<>();
+        for (int i = 0; i < HistoryRowsDiff.count(rows, matches); i++) shown.add(HistoryRowsDiff.indexAt(rows, matches, i));
+        return shown;
+    }
+
+    /**
+     * Apply the diff to what was shown like an adapter would, and log the notifications
+     */
+    private static List<Integer> replay(HistoryRowsDiff diff, List<Integer> before, List<Integer> after, List<String> log) {
+        List<Integer> list = new ArrayList<>(before);
+        diff.dispatchTo(new HistoryRowsDiff.Callback() {
+            @Override
+            public void onInserted(int position, int count) {
+                log.add("+" + position + "x" + count);
+                list.addAll(position, after.subList(position, position + count));
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                log.add("-" + position + "x" + count);
+                list.subList(position, position + count).clear();
+            }
+
+            @Override
+            public void onChanged(int position, int count) {
+                log.add("~" + position + "x" + count);
+                for (int i = position; i < position + count; i++) list.set(i, after.get(i));
+            }
+        });
+        return list;
+    }
+
+    @Test
+    public void appendedRowsAreInsertedAtTheTop() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        HistorySnapshot.View before = snapshot.rewrite(items(0, 5).iterator());
+        HistorySnapshot.View after = snapshot.append(items(5, 7));
+
+        List<String> log = new ArrayList<>();
+        List<Integer> result = replay(HistoryRowsDiff.compute(before, null, after, null),
+                shown(before, null), shown(after, null), log);
+
+        assertEquals(shown(after, null), result);
+        assertEquals("[+0x2]", log.toString());
+    }
+
+    @Test
+    public void searchRemovesAndRestoresOnlyTheRowsThatDiffer() throws Exception {
+        HistorySnapshot.View rows = new HistorySnapshot(folder.getRoot(), "alice").rewrite(items(0, 10).iterator());
+        int[] matches = { 1, 2, 3, 7 };
+
+        List<String> log = new ArrayList<>();
+        List<Integer> narrowed = replay(HistoryRowsDiff.compute(rows, null, rows, matches),
+                shown(rows, null), shown(rows, matches), log);
+        assertEquals(shown(rows, matches), narrowed);
+        assertEquals("[-0x2, -1x3, -4x1]", log.toString());
+
+        log.clear();
+        List<Integer> widened = replay(HistoryRowsDiff.compute(rows, matches, rows, null),
+                narrowed, shown(rows, null), log);
+        assertEquals(shown(rows, null), widened);
+        assertEquals("[+0x2, +3x3, +9x1]", log.toString());
+    }
+
+    @Test
+    public void matchesOfAGrownSnapshotAreMerged() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        HistorySnapshot.View before = snapshot.rewrite(items(0, 6).iterator());
+        HistorySnapshot.View after = snapshot.append(items(6, 9));
+        int[] oldMatches = { 0, 2, 4, 5 };
+        int[] newMatches = { 0, 4, 6, 8 };
+
+        List<String> log = new ArrayList<>();
+        List<Integer> result = replay(HistoryRowsDiff.compute(before, oldMatches, after, newMatches),
+                shown(before, oldMatches), shown(after, newMatches), log);
+
+        assertEquals(shown(after, newMatches), result);
+        assertTrue(log.stream().noneMatch(entry -> entry.startsWith("~")));
+    }
+
+    @Test
+    public void rewrittenSnapshotIsReportedAsChanged() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        HistorySnapshot.View before = snapshot.rewrite(items(0, 5).iterator());
+        HistorySnapshot.View after = snapshot.rewrite(items(0, 3).iterator());
+
+        List<String> log = new ArrayList<>();
+        replay(HistoryRowsDiff.compute(before, null, after, null), shown(before, null), shown(after, null), log);
+
+        assertEquals("[~0x3, -3x2]", log.toString());
+    }
+
+    @Test
+    public void sameRowsNotifyNothing() throws Exception {
+        HistorySnapshot.View rows = new HistorySnapshot(folder.getRoot(), "alice").rewrite(items(0, 4).iterator());
+        List<String> log = new ArrayList<>();
+
+        replay(HistoryRowsDiff.compute(rows, null, rows, null), shown(rows, null), shown(rows, null), log);
+
+        assertTrue(log.isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.translationapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistorySearchIndexTest {
+
+    private static HistoryItem item(int id, String original, String translated) {
+        return new HistoryItem(String.valueOf(id), original, translated, "fr", "2024-01-01T00:00:00");
+    }
+
+    private static List<HistoryItem> naiveFilter(List<HistoryItem> items, String query) {
+        String lowerQuery = query.toLowerCase();
+        List<HistoryItem> result = new ArrayList<>();
+        for (HistoryItem item : items) {
+            if (item.getOriginalText().toLowerCase().contains(lowerQuery) ||
+                item.getTranslatedText().toLowerCase().contains(lowerQuery)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void matchesNaiveFilter() {
+        String[] words = {"hello", "world", "Bonjour", "monde", "salam", "labas", "shukran", "merci", "HELLO"};
+        Random random = new Random(42);
+        List<HistoryItem> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add(item(i, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+                    words[random.nextInt(words.length)]));
+        }
+        HistorySearchIndex index = new HistorySearchIndex();
+        index.addAll(items.subList(0, 250));
+        index.addAll(items.subList(250, 500));
+
+        for (String query : Arrays.asList("", "h", "he", "hel", "Hello", "lo wo", "o m", "bonjour monde", "xyz", "ab")) {
+            assertEquals(query, naiveFilter(items, query), index.search(query, () -> false));
+        }
+    }
+
+    @Test
+    public void queryDoesNotMatchAcrossFields() {
+        HistorySearchIndex index = new HistorySearchIndex();
+        index.add(item(1, "good", "morning"));
+
+        assertTrue(index.search("goodmorning", () -> false).isEmpty());
+        assertTrue(index.search("dmo", () -> false).isEmpty());
+        assertEquals(1, index.search("morn", () -> false).size());
+    }
+
+    @Test
+    public void cancelledSearchReturnsNull() {
+        HistorySearchIndex index = new HistorySearchIndex();
+        for (int i = 0; i < 5000; i++) index.add(item(i, "hello " + i, "bonjour"));
+
+        assertNull(index.search("hello", () -> true));
+        assertNull(index.search("h", () -> true));
+    }
+
+    @Test
+    public void matchReturnsPositionsOfTextOnlyDocuments() {
+        HistorySearchIndex index = new HistorySearchIndex();
+        index.add("good morning", "sbah lkhir");
+        index.add("good night", "tesbah 3la khir");
+        index.add("thank you", "shukran");
+
+        assertArrayEquals(new int[] { 0, 1 }, index.match("GOOD", () -> false));
+        assertArrayEquals(new int[] { 2 }, index.match("sh", () -> false));
+        assertArrayEquals(new int[] { 0, 1, 2 }, index.match("", () -> false));
+        assertEquals(0, index.match("zzz", () -> false).length);
+        assertNull(index.match("good", () -> true));
+    }
+
+    @Test
+    public void clearDropsEverything() {
+        HistorySearchIndex index = new HistorySearchIndex();
+        index.add(item(1, "hello", "bonjour"));
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertTrue(index.search("hello", () -> false).isEmpty());
+    }
+}
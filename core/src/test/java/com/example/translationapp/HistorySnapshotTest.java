@@ -0,0 +1,119 @@
+package com.example.translationapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistorySnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static HistoryItem item(int id) {
+        return new HistoryItem(String.valueOf(id), "hello " + id, "salam " + id, "Darija",
+                String.format("2024-01-01T00:00:%02d", id));
+    }
+
+    private static List<HistoryItem> items(int from, int to) {
+        List<HistoryItem> items = new ArrayList<>();
+        for (int i = from; i < to; i++) items.add(item(i));
+        return items;
+    }
+
+    @Test
+    public void rewriteThenReadLazily() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        assertFalse(snapshot.exists());
+
+        HistorySnapshot.View view = snapshot.rewrite(items(0, 100).iterator());
+
+        assertTrue(snapshot.exists());
+        assertEquals(100, view.size());
+        assertEquals(item(0), view.get(0));
+        assertEquals(item(99), view.getNewest(0));
+        assertEquals(item(42), view.getNewest(57));
+    }
+
+    @Test
+    public void keepsUnicodeAndNulls() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        HistoryItem item = new HistoryItem("local-1", "où est la gare ?", "فين كاينة المحطة؟", null, "");
+
+        HistorySnapshot.View view = snapshot.rewrite(Collections.singletonList(item).iterator());
+
+        assertEquals(item, view.get(0));
+    }
+
+    @Test
+    public void appendLeavesEarlierViewsAlone() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        HistorySnapshot.View before = snapshot.rewrite(items(0, 3).iterator());
+
+        HistorySnapshot.View after = snapshot.append(items(3, 5));
+
+        assertEquals(3, before.size());
+        assertEquals(5, after.size());
+        assertEquals(item(4), after.getNewest(0));
+        assertTrue(after.startsWith(before));
+        assertFalse(before.startsWith(after));
+    }
+
+    @Test
+    public void survivesReopening() throws Exception {
+        new HistorySnapshot(folder.getRoot(), "alice").rewrite(items(0, 10).iterator());
+        new HistorySnapshot(folder.getRoot(), "alice").append(items(10, 12));
+
+        HistorySnapshot.View view = new HistorySnapshot(folder.getRoot(), "alice").view();
+
+        assertEquals(12, view.size());
+        assertEquals(item(11), view.getNewest(0));
+    }
+
+    @Test
+    public void tornAppendIsCutOff() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        snapshot.rewrite(items(0, 10).iterator());
+        snapshot.append(items(10, 11));
+        // Lose the end of the last record, as if the process died while writing it
+        File data = new File(folder.getRoot(), "alice.dat");
+        try (RandomAccessFile file = new RandomAccessFile(data, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        HistorySnapshot reopened = new HistorySnapshot(folder.getRoot(), "alice");
+        assertEquals(10, reopened.view().size());
+
+        // The next append goes where the torn record was
+        HistorySnapshot.View view = reopened.append(items(20, 21));
+        assertEquals(11, view.size());
+        assertEquals(item(20), view.getNewest(0));
+        assertEquals(item(9), view.getNewest(1));
+    }
+
+    @Test
+    public void rewriteAndDeleteStartNewLineage() throws Exception {
+        HistorySnapshot snapshot = new HistorySnapshot(folder.getRoot(), "alice");
+        HistorySnapshot.View first = snapshot.rewrite(items(0, 3).iterator());
+        HistorySnapshot.View second = snapshot.rewrite(items(0, 4).iterator());
+        assertFalse(second.startsWith(first));
+
+        snapshot.delete();
+        assertFalse(snapshot.exists());
+        // Still mapped
+        assertEquals(item(3), second.getNewest(0));
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void appendNeedsASnapshot() throws Exception {
+        new HistorySnapshot(folder.getRoot(), "alice").append(Arrays.asList(item(0)));
+    }
+}
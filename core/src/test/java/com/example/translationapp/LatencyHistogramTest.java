@@ -0,0 +1,42 @@
+package com.example.translationapp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogramReportsMinusOne() {
+        LatencyHistogram histogram = new LatencyHistogram(8);
+        assertArrayEquals(new long[] { -1, -1 }, histogram.percentiles(0.5, 0.99));
+        assertEquals(0, histogram.count());
+    }
+
+    @Test
+    public void nearestRankPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(100);
+        for (int i = 100; i >= 1; i--) histogram.record(i);
+
+        assertArrayEquals(new long[] { 50, 95, 99, 100 }, histogram.percentiles(0.5, 0.95, 0.99, 1.0));
+        assertEquals(1, histogram.percentile(0.0));
+    }
+
+    @Test
+    public void oldSamplesLeaveTheWindow() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        for (int i = 0; i < 4; i++) histogram.record(1000);
+        for (int i = 0; i < 4; i++) histogram.record(10);
+
+        assertEquals(10, histogram.percentile(0.99));
+        assertEquals(8, histogram.count());
+    }
+
+    @Test
+    public void clearDropsSamples() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        histogram.record(5);
+        histogram.clear();
+        assertEquals(-1, histogram.percentile(0.5));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LiveTranslateSchedulerTest {
+
+    private final BlockingQueue<String> runs = new LinkedBlockingQueue<>();
+    private final LiveTranslateScheduler scheduler =
+            new LiveTranslateScheduler(Executors.newSingleThreadScheduledExecutor(), 100, 500);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    private void type(String text) {
+        scheduler.submit(text, () -> runs.add(text));
+    }
+
+    @Test
+    public void onlyLastKeystrokeOfBurstRuns() throws Exception {
+        type("h");
+        type("he");
+        type("hel");
+        type("hello");
+
+        assertEquals("hello", runs.poll(1, TimeUnit.SECONDS));
+        assertNull(runs.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void unchangedKeyIsNotSentAgain() throws Exception {
+        type("hello");
+        assertEquals("hello", runs.poll(1, TimeUnit.SECONDS));
+
+        type("hello!");
+        type("hello");
+        assertNull(runs.poll(800, TimeUnit.MILLISECONDS));
+
+        scheduler.reset();
+        type("hello");
+        assertEquals("hello", runs.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failedKeyCanBeSentAgain() throws Exception {
+        type("hello");
+        assertEquals("hello", runs.poll(1, TimeUnit.SECONDS));
+
+        scheduler.forget("bye");
+        type("hello");
+        assertNull(runs.poll(800, TimeUnit.MILLISECONDS));
+
+        scheduler.forget("hello");
+        type("hello");
+        assertEquals("hello", runs.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void runsAreRateCapped() throws Exception {
+        type("a");
+        assertEquals("a", runs.poll(1, TimeUnit.SECONDS));
+        long first = System.nanoTime();
+
+        type("ab");
+        assertEquals("ab", runs.poll(2, TimeUnit.SECONDS));
+        long gapMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - first);
+        assertTrue("gap was " + gapMillis + " ms", gapMillis >= 450);
+    }
+
+    @Test
+    public void cancelDropsPendingRun() throws Exception {
+        type("hello");
+        scheduler.cancel();
+
+        assertNull(runs.poll(300, TimeUnit.MILLISECONDS));
+    }
+}
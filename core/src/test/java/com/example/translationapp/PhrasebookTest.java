@@ -0,0 +1,137 @@
+package com.example.translationapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PhrasebookTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Phrasebook build(PhrasebookWriter writer, long version) throws IOException {
+        return Phrasebook.wrap(ByteBuffer.wrap(writer.toBytes(version)));
+    }
+
+    @Test
+    public void findsNormalizedPhrases() throws Exception {
+        PhrasebookWriter writer = new PhrasebookWriter();
+        writer.add("Where is the station?", "Darija", "fin kayna lmahatta?");
+        writer.add("thank you", "Darija", "shukran");
+        Phrasebook phrasebook = build(writer, 7);
+
+        assertEquals(7, phrasebook.getVersion());
+        assertEquals(2, phrasebook.size());
+        assertEquals("fin kayna lmahatta?", phrasebook.lookup("where is the station", "Darija"));
+        assertEquals("fin kayna lmahatta?", phrasebook.lookup("  WHERE is   the station ?! ", " darija "));
+        assertEquals("shukran", phrasebook.lookup("Thank you.", "Darija"));
+    }
+
+    @Test
+    public void prefixesAndOtherLanguagesMiss() throws Exception {
+        PhrasebookWriter writer = new PhrasebookWriter();
+        writer.add("how much", "Darija", "bshhal?");
+        writer.add("how much is this", "Darija", "bshhal hada?");
+        Phrasebook phrasebook = build(writer, 1);
+
+        assertNull(phrasebook.lookup("how", "Darija"));
+        assertNull(phrasebook.lookup("how much is", "Darija"));
+        assertNull(phrasebook.lookup("how much is this one", "Darija"));
+        assertNull(phrasebook.lookup("how much", "French"));
+        assertEquals("bshhal?", phrasebook.lookup("How much?", "Darija"));
+        assertEquals("bshhal hada?", phrasebook.lookup("how much is this", "Darija"));
+    }
+
+    @Test
+    public void laterTranslationReplacesEarlier() throws Exception {
+        PhrasebookWriter writer = new PhrasebookWriter();
+        writer.add("hello", "Darija", "ahlan");
+        writer.add("Hello!", "Darija", "salam");
+        Phrasebook phrasebook = build(writer, 1);
+
+        assertEquals(1, phrasebook.size());
+        assertEquals("salam", phrasebook.lookup("hello", "Darija"));
+    }
+
+    @Test
+    public void largeTableRoundTrips() throws Exception {
+        Random random = new Random(3);
+        Map<String, String> phrases = new HashMap<>();
+        PhrasebookWriter writer = new PhrasebookWriter();
+        for (int i = 0; i < 5000; i++) {
+            String phrase = randomWords(random) + " " + i;
+            String translation = "tarjama " + i + " مرحبا";
+            phrases.put(phrase, translation);
+            writer.add(phrase, "Darija", translation);
+        }
+        Phrasebook phrasebook = build(writer, 1);
+
+        assertEquals(5000, phrasebook.size());
+        for (Map.Entry<String, String> entry : phrases.entrySet()) {
+            assertEquals(entry.getValue(), phrasebook.lookup(entry.getKey(), "Darija"));
+        }
+        assertNull(phrasebook.lookup("not in the table", "Darija"));
+    }
+
+    @Test
+    public void mapsFileAndVerifiesChecksum() throws Exception {
+        PhrasebookWriter writer = new PhrasebookWriter();
+        writer.add("yes", "Darija", "iyeh");
+        File file = folder.newFile("phrasebook.bin");
+        writer.write(file, 42);
+
+        assertEquals(42, Phrasebook.verify(file));
+        assertEquals("iyeh", Phrasebook.open(file).lookup("Yes", "Darija"));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            raf.write('x');
+        }
+        try {
+            Phrasebook.verify(file);
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws Exception {
+        File file = folder.newFile("junk.bin");
+        Files.write(file.toPath(), "{\"not\":\"a phrasebook, but long enough\"}".getBytes(StandardCharsets.UTF_8));
+        Phrasebook.open(file);
+    }
+
+    @Test
+    public void packsTsvWithVersion() throws Exception {
+        File tsv = folder.newFile("phrases.tsv");
+        Files.write(tsv.toPath(), ("@version 3\n# comment\n\nDarija\tgood morning\tsbah lkhir\n")
+                .getBytes(StandardCharsets.UTF_8));
+        PhrasebookWriter writer = new PhrasebookWriter();
+
+        assertEquals(3, writer.addTsv(tsv));
+        assertEquals("sbah lkhir", build(writer, 3).lookup("Good morning!", "Darija"));
+    }
+
+    private static String randomWords(Random random) {
+        String[] words = { "where", "is", "the", "how", "much", "good", "bad", "station", "market", "taxi" };
+        StringBuilder sb = new StringBuilder();
+        int count = 1 + random.nextInt(5);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(words[random.nextInt(words.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class RequestOutboxTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private final OkHttpClient client = new OkHttpClient();
+    private File directory;
+    // Status codes to answer per entry name before answering 200
+    private final Map<String, Queue<Integer>> failures = new ConcurrentHashMap<>();
+    private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> dropped = Collections.synchronizedList(new ArrayList<>());
+
+    private final RequestOutbox.Handler handler = new RequestOutbox.Handler() {
+        @Override
+        public Call newCall(RequestOutbox.Entry entry) {
+            return client.newCall(new Request.Builder()
+                    .url(server.url("/" + entry.getType() + "/" + entry.getParam("name")))
+                    .header("Idempotency-Key", entry.getIdempotencyKey())
+                    .build());
+        }
+
+        @Override
+        public void onDelivered(RequestOutbox.Entry entry, Response response) throws IOException {
+            delivered.add(entry.getParam("name") + "=" + response.body().string());
+        }
+
+        @Override
+        public void onDropped(RequestOutbox.Entry entry, String reason) {
+            dropped.add(entry.getParam("name") + ": " + reason);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        directory = folder.newFolder("outbox");
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String name = request.getRequestUrl().pathSegments().get(1);
+                Queue<Integer> codes = failures.get(name);
+                Integer code = codes != null ? codes.poll() : null;
+                if (code != null) return new MockResponse().setResponseCode(code);
+                return new MockResponse().setBody("ok:" + name);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void entriesSurviveReopeningInOrder() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 5);
+        enqueue(outbox, "a", false);
+        enqueue(outbox, "b", true);
+        RequestOutbox.Entry c = enqueue(outbox, "c", false);
+
+        RequestOutbox reopened = new RequestOutbox(directory, 8, 5);
+        enqueue(reopened, "d", false);
+
+        List<RequestOutbox.Entry> pending = reopened.pending();
+        assertEquals(4, pending.size());
+        assertEquals("a", pending.get(0).getParam("name"));
+        assertTrue(pending.get(1).isBarrier());
+        assertEquals(c.getIdempotencyKey(), pending.get(2).getIdempotencyKey());
+        assertEquals("d", pending.get(3).getParam("name"));
+    }
+
+    @Test
+    public void corruptEntryIsSkipped() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 5);
+        enqueue(outbox, "a", false);
+        File[] files = directory.listFiles();
+        Files.write(files[0].toPath(), "{not json".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(outbox.pending().isEmpty());
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    public void unreadableEntryIsKeptAndStopsTheFlush() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 5);
+        enqueue(outbox, "a", false);
+        // Opening a directory fails like a transient I/O error would
+        File unreadable = new File(directory, String.format("%019d.json", 99));
+        assertTrue(unreadable.mkdir());
+
+        assertFalse(outbox.flush(handler));
+        assertTrue(unreadable.exists());
+        assertEquals(2, outbox.size());
+        assertTrue(delivered.isEmpty());
+
+        assertTrue(unreadable.delete());
+        assertTrue(outbox.flush(handler));
+        assertEquals(Collections.singletonList("a=ok:a"), delivered);
+    }
+
+    @Test
+    public void flushDeliversWithIdempotencyKey() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 5);
+        RequestOutbox.Entry a = enqueue(outbox, "a", false);
+
+        assertTrue(outbox.flush(handler));
+
+        assertEquals(Collections.singletonList("a=ok:a"), delivered);
+        assertEquals(a.getIdempotencyKey(), server.takeRequest().getHeader("Idempotency-Key"));
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    public void barrierWaitsForEverythingBeforeIt() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 5);
+        enqueue(outbox, "a", false);
+        enqueue(outbox, "b", false);
+        enqueue(outbox, "clear", true);
+        enqueue(outbox, "c", false);
+        failures.put("b", new LinkedBlockingQueue<>(Collections.singletonList(503)));
+
+        assertFalse(outbox.flush(handler));
+        // a and b went out together; neither the barrier nor c was sent
+        assertEquals(2, server.getRequestCount());
+        assertEquals(Collections.singletonList("a=ok:a"), delivered);
+        assertEquals(3, outbox.size());
+        assertEquals(1, outbox.pending().get(0).getAttempts());
+
+        assertTrue(outbox.flush(handler));
+        assertEquals(5, server.getRequestCount());
+        assertEquals(Arrays.asList("a=ok:a", "b=ok:b", "clear=ok:clear", "c=ok:c"), delivered);
+    }
+
+    @Test
+    public void retriedEntryKeepsItsKey() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 5);
+        enqueue(outbox, "a", false);
+        failures.put("a", new LinkedBlockingQueue<>(Collections.singletonList(429)));
+
+        assertFalse(outbox.flush(handler));
+        assertTrue(outbox.flush(handler));
+
+        String first = server.takeRequest().getHeader("Idempotency-Key");
+        assertEquals(first, server.takeRequest().getHeader("Idempotency-Key"));
+    }
+
+    @Test
+    public void rejectedEntryIsDropped() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 5);
+        enqueue(outbox, "a", false);
+        enqueue(outbox, "b", false);
+        failures.put("a", new LinkedBlockingQueue<>(Collections.singletonList(400)));
+
+        assertTrue(outbox.flush(handler));
+        assertEquals(Collections.singletonList("a: HTTP 400"), dropped);
+        assertEquals(Collections.singletonList("b=ok:b"), delivered);
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 2);
+        enqueue(outbox, "a", false);
+        failures.put("a", new LinkedBlockingQueue<>(Arrays.asList(500, 500)));
+
+        assertFalse(outbox.flush(handler));
+        assertTrue(outbox.flush(handler));
+        assertEquals(Collections.singletonList("a: Gave up after 2 attempts"), dropped);
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    public void networkFailureKeepsEntryWithoutUsingAnAttempt() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 2);
+        enqueue(outbox, "a", false);
+        server.shutdown();
+
+        // More failed flushes than attempts allowed, as while offline
+        for (int i = 0; i < 3; i++) assertFalse(outbox.flush(handler));
+        assertEquals(1, outbox.size());
+        assertTrue(dropped.isEmpty());
+        assertEquals(0, new RequestOutbox(directory, 8, 2).pending().get(0).getAttempts());
+    }
+
+    @Test
+    public void clearedEntryIsNotWrittenBackByItsRetry() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 8, 5);
+        enqueue(outbox, "a", false);
+        enqueue(outbox, "b", false);
+        failures.put("a", new LinkedBlockingQueue<>(Collections.singletonList(503)));
+        RequestOutbox.Handler clearingHandler = new RequestOutbox.Handler() {
+            @Override
+            public Call newCall(RequestOutbox.Entry entry) {
+                // Logged out while the batch was going out
+                outbox.clear();
+                return handler.newCall(entry);
+            }
+
+            @Override
+            public void onDelivered(RequestOutbox.Entry entry, Response response) throws IOException {
+                handler.onDelivered(entry, response);
+            }
+
+            @Override
+            public void onDropped(RequestOutbox.Entry entry, String reason) {
+                handler.onDropped(entry, reason);
+            }
+        };
+
+        outbox.flush(clearingHandler);
+
+        assertEquals(0, outbox.size());
+        assertTrue(outbox.flush(handler));
+        assertTrue(dropped.isEmpty());
+    }
+
+    @Test
+    public void largeRunIsSentInBatches() throws Exception {
+        RequestOutbox outbox = new RequestOutbox(directory, 3, 5);
+        for (int i = 0; i < 7; i++) enqueue(outbox, "t" + i, false);
+
+        assertTrue(outbox.flush(handler));
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 7; i++) order.add(server.takeRequest().getPath());
+        assertEquals(7, delivered.size());
+        // The first batch of three is sent before anything of the second
+        for (int i = 0; i < 3; i++) assertTrue(order.subList(0, 3).contains("/item/t" + i));
+    }
+
+    private static RequestOutbox.Entry enqueue(RequestOutbox outbox, String name, boolean barrier) throws IOException {
+        return outbox.enqueue("item", Collections.singletonMap("name", name), barrier);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.translationapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SpeechCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static File write(File file, int size, byte value) throws Exception {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, value);
+        Files.write(file.toPath(), bytes);
+        return file;
+    }
+
+    @Test
+    public void replaysCommittedSynthesis() throws Exception {
+        SpeechCache cache = new SpeechCache(new File(folder.getRoot(), "speech"), 1 << 20);
+        assertNull(cache.get("salam", "ar", "ar-xa-x-ard-local"));
+
+        File stored = cache.commit(write(cache.newTempFile(), 100, (byte) 1), "salam", "ar", "ar-xa-x-ard-local");
+
+        assertEquals(stored, cache.get("  salam ", "ar", "ar-xa-x-ard-local"));
+        assertEquals(100, stored.length());
+    }
+
+    @Test
+    public void keyIncludesLocaleAndVoice() throws Exception {
+        SpeechCache cache = new SpeechCache(new File(folder.getRoot(), "speech"), 1 << 20);
+        cache.commit(write(cache.newTempFile(), 100, (byte) 1), "salam", "ar", "voice-a");
+
+        assertNull(cache.get("salam", "ar", "voice-b"));
+        assertNull(cache.get("salam", "ar-MA", "voice-a"));
+        assertNull(cache.get("salam", "ar", null));
+        assertNotEquals(SpeechCache.key("Salam", "ar", null), SpeechCache.key("salam", "ar", null));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedOverBudget() throws Exception {
+        SpeechCache cache = new SpeechCache(new File(folder.getRoot(), "speech"), 250);
+
+        File a = cache.commit(write(cache.newTempFile(), 100, (byte) 1), "a", "ar", null);
+        a.setLastModified(System.currentTimeMillis() - 20_000);
+        File b = cache.commit(write(cache.newTempFile(), 100, (byte) 2), "b", "ar", null);
+        b.setLastModified(System.currentTimeMillis() - 10_000);
+        // Replaying a makes b the eldest
+        assertNotNull(cache.get("a", "ar", null));
+        cache.commit(write(cache.newTempFile(), 100, (byte) 3), "c", "ar", null);
+
+        assertNotNull(cache.get("a", "ar", null));
+        assertNull(cache.get("b", "ar", null));
+        assertNotNull(cache.get("c", "ar", null));
+    }
+
+    @Test
+    public void emptySynthesisIsNotCached() throws Exception {
+        SpeechCache cache = new SpeechCache(new File(folder.getRoot(), "speech"), 1 << 20);
+        File temp = cache.newTempFile();
+        assertTrue(temp.createNewFile());
+
+        assertNull(cache.commit(temp, "salam", "ar", null));
+        assertFalse(temp.exists());
+        assertNull(cache.get("salam", "ar", null));
+    }
+}
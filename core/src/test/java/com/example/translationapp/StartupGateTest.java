@@ -0,0 +1,74 @@
+package com.example.translationapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StartupGateTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final BlockingQueue<String> ready = new LinkedBlockingQueue<>();
+    private final StartupGate gate = new StartupGate(
+            (phaseMillis, timedOut) -> ready.add(phaseMillis.keySet() + (timedOut ? " timed out" : "")),
+            "session", "connection", "tts");
+
+    @After
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void readyOnceEveryPhaseCompletes() throws Exception {
+        gate.start(timer, 5000);
+        gate.complete("tts");
+        gate.complete("session");
+        assertNull(ready.poll(100, TimeUnit.MILLISECONDS));
+
+        gate.complete("connection");
+        assertEquals("[session, connection, tts]", ready.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void timeoutReportsOnlyFinishedPhases() throws Exception {
+        gate.start(timer, 200);
+        gate.complete("session");
+
+        assertEquals("[session] timed out", ready.poll(2, TimeUnit.SECONDS));
+        gate.complete("connection");
+        gate.complete("tts");
+        assertNull(ready.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void repeatedAndUnknownPhasesAreIgnored() throws Exception {
+        gate.start(timer, 5000);
+        gate.complete("session");
+        gate.complete("session");
+        gate.complete("audio");
+        gate.complete("connection");
+        assertNull(ready.poll(100, TimeUnit.MILLISECONDS));
+
+        gate.complete("tts");
+        assertNotNull(ready.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void recordsPhaseDurations() throws Exception {
+        BlockingQueue<Map<String, Long>> timings = new LinkedBlockingQueue<>();
+        StartupGate timed = new StartupGate((phaseMillis, timedOut) -> timings.add(phaseMillis), "slow");
+        timed.start(timer, 5000);
+        Thread.sleep(120);
+        timed.complete("slow");
+
+        long slow = timings.poll(1, TimeUnit.SECONDS).get("slow");
+        assertTrue("slow took " + slow + " ms", slow >= 100 && slow < 5000);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.translationapp;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TextChunkerTest {
+
+    private static String join(List<TextChunker.Chunk> chunks) {
+        StringBuilder sb = new StringBuilder();
+        for (TextChunker.Chunk chunk : chunks) sb.append(chunk.getText()).append(chunk.getSeparator());
+        return sb.toString();
+    }
+
+    @Test
+    public void keepsShortTextWhole() {
+        List<TextChunker.Chunk> chunks = new TextChunker(100).split("Hello there. How are you?");
+
+        assertEquals(1, chunks.size());
+        assertEquals("Hello there. How are you?", chunks.get(0).getText());
+        assertEquals("", chunks.get(0).getSeparator());
+    }
+
+    @Test
+    public void packsWholeSentencesUpToTheLimit() {
+        String text = "One two three. Four five six. Seven eight nine.";
+        List<TextChunker.Chunk> chunks = new TextChunker(30).split(text);
+
+        assertEquals(2, chunks.size());
+        assertEquals("One two three. Four five six.", chunks.get(0).getText());
+        assertEquals(" ", chunks.get(0).getSeparator());
+        assertEquals("Seven eight nine.", chunks.get(1).getText());
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void splitsAtParagraphsAndKeepsTheirBreaks() {
+        String text = "First paragraph.\n\nSecond one.\nSame paragraph.";
+        List<TextChunker.Chunk> chunks = new TextChunker(1000).split(text);
+
+        assertEquals(2, chunks.size());
+        assertEquals("First paragraph.", chunks.get(0).getText());
+        assertEquals("\n\n", chunks.get(0).getSeparator());
+        assertEquals("Second one.\nSame paragraph.", chunks.get(1).getText());
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void cutsOverlongSentencesBetweenWords() {
+        String text = "aaaa bbbb cccc dddd eeee";
+        List<TextChunker.Chunk> chunks = new TextChunker(10).split(text);
+
+        assertEquals(3, chunks.size());
+        assertEquals("aaaa bbbb", chunks.get(0).getText());
+        assertEquals("cccc dddd", chunks.get(1).getText());
+        assertEquals("eeee", chunks.get(2).getText());
+        for (TextChunker.Chunk chunk : chunks) assertTrue(chunk.getText().length() <= 10);
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void cutsWordsLongerThanTheLimit() {
+        List<TextChunker.Chunk> chunks = new TextChunker(4).split("abcdefghij");
+
+        assertEquals(3, chunks.size());
+        assertEquals("abcd", chunks.get(0).getText());
+        assertEquals("", chunks.get(0).getSeparator());
+        assertEquals("ij", chunks.get(2).getText());
+    }
+
+    @Test
+    public void ignoresSurroundingWhitespace() {
+        List<TextChunker.Chunk> chunks = new TextChunker(100).split("  \n Hello.  \n\n ");
+
+        assertEquals(1, chunks.size());
+        assertEquals("Hello.", chunks.get(0).getText());
+        assertTrue(new TextChunker(100).split(" \n ").isEmpty());
+    }
+}
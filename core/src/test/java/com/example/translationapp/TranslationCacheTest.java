@@ -0,0 +1,88 @@
+package com.example.translationapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class TranslationCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void memoryHitIgnoresWhitespaceButNotCase() throws Exception {
+        TranslationCache cache = new TranslationCache(folder.newFolder(), 1 << 20, 1 << 20, 60_000);
+        File audio = folder.newFile("bonjour.mp3");
+        cache.put("Good  morning ", "French", true, "Bonjour", audio);
+
+        TranslationCache.Entry entry = cache.get("Good morning", " french", true);
+        assertNotNull(entry);
+        assertEquals("Bonjour", entry.getTranslation());
+        assertEquals(audio.getAbsolutePath(), entry.getAudioFile().getAbsolutePath());
+        assertEquals(1, cache.getMemoryHits());
+
+        assertNull(cache.get("good morning", "French", true));
+        assertNull(cache.get("Good morning", "French", false));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void diskTierSurvivesNewInstance() throws Exception {
+        File dir = folder.newFolder();
+        new TranslationCache(dir, 1 << 20, 1 << 20, 60_000).put("thanks", "Darija", false, "shukran", null);
+
+        TranslationCache reopened = new TranslationCache(dir, 1 << 20, 1 << 20, 60_000);
+        assertEquals("shukran", reopened.get("thanks", "Darija", false).getTranslation());
+        assertEquals(1, reopened.getDiskHits());
+
+        // Promoted to memory after the disk hit
+        reopened.get("thanks", "Darija", false);
+        assertEquals(1, reopened.getMemoryHits());
+    }
+
+    @Test
+    public void evictedAudioKeepsText() throws Exception {
+        TranslationCache cache = new TranslationCache(folder.newFolder(), 1 << 20, 1 << 20, 60_000);
+        File audio = folder.newFile("hello.mp3");
+        cache.put("hello", "English", false, "hello", audio);
+        audio.delete();
+
+        TranslationCache.Entry entry = cache.get("hello", "English", false);
+        assertEquals("hello", entry.getTranslation());
+        assertNull(entry.getAudioFile());
+    }
+
+    @Test
+    public void expiredEntriesAreMisses() throws Exception {
+        TranslationCache cache = new TranslationCache(folder.newFolder(), 1 << 20, 1 << 20, -1);
+        cache.put("hello", "English", false, "hello", null);
+
+        assertNull(cache.get("hello", "English", false));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedBySize() throws Exception {
+        File dir = folder.newFolder();
+        // Room for roughly two entries in memory and on disk
+        TranslationCache cache = new TranslationCache(dir, 200, 250, 60_000);
+        cache.put("one", "French", false, "un-------------------", null);
+        cache.put("two", "French", false, "deux-----------------", null);
+        cache.get("one", "French", false);
+        cache.put("three", "French", false, "trois----------------", null);
+
+        long onDisk = 0;
+        for (File file : dir.listFiles()) onDisk += file.length();
+        assertTrue(onDisk <= 250);
+
+        // "two" was least recently used, so it left memory while "one" stayed
+        assertNotNull(cache.get("one", "French", false));
+        assertEquals(2, cache.getMemoryHits());
+        cache.get("two", "French", false);
+        assertEquals(2, cache.getMemoryHits());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.translationapp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Random;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import static org.junit.Assert.*;
+
+public class TranslationResponseReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void decodesAudioIntoFile() throws Exception {
+        byte[] clip = new byte[100_000];
+        new Random(42).nextBytes(clip);
+        // Escaped slashes and a MIME line break, as some encoders produce
+        String base64 = Base64.getMimeEncoder().encodeToString(clip)
+                .replace("/", "\\/")
+                .replace("\r\n", "\\r\\n");
+        String json = "{\"meta\":{\"voice\":\"x\",\"ids\":[1,2]},\"audio\":\"" + base64
+                + "\",\"translation\":\"Bonjour \\\"toi\\\" \\u00e9t\\u00e9\",\"cached\":false}";
+
+        File audioFile = new File(folder.getRoot(), "audio/clip.mp3");
+        TranslationResponseReader.Result result = TranslationResponseReader.read(stream(json), audioFile);
+
+        assertEquals("Bonjour \"toi\" été", result.getTranslation());
+        assertEquals(audioFile, result.getAudioFile());
+        assertArrayEquals(clip, Files.readAllBytes(audioFile.toPath()));
+    }
+
+    @Test
+    public void noAudioLeavesNoFile() throws Exception {
+        File audioFile = new File(folder.getRoot(), "clip.mp3");
+        TranslationResponseReader.Result result =
+                TranslationResponseReader.read(stream("{ \"translation\" : \"salam\", \"audio\": \"\" }"), audioFile);
+
+        assertEquals("salam", result.getTranslation());
+        assertNull(result.getAudioFile());
+        assertFalse(audioFile.exists());
+    }
+
+    @Test
+    public void audioSkippedWithoutTarget() throws Exception {
+        TranslationResponseReader.Result result =
+                TranslationResponseReader.read(stream("{\"audio\":\"QUJD\",\"translation\":\"hola\"}"), null);
+
+        assertEquals("hola", result.getTranslation());
+        assertNull(result.getAudioFile());
+    }
+
+    @Test
+    public void largeTextOnlyBodyIsStreamed() throws Exception {
+        // Past the size decoded in one go, with a multi-byte character across the boundary
+        StringBuilder translation = new StringBuilder();
+        while (translation.length() < 20_000) translation.append("salam 3lik, ça va? ");
+        String json = "{\"audio\":\"" + "QUJD".repeat(5_000) + "\",\"translation\":\"" + translation + "\"}";
+
+        TranslationResponseReader.Result result = TranslationResponseReader.read(stream(json), null);
+
+        assertEquals(translation.toString(), result.getTranslation());
+        assertNull(result.getAudioFile());
+    }
+
+    @Test
+    public void readsMultipartWithRawAudio() throws Exception {
+        byte[] clip = new byte[100_000];
+        new Random(7).nextBytes(clip);
+        MultipartBody multipart = new MultipartBody.Builder("frontier")
+                .setType(MultipartBody.MIXED)
+                .addPart(RequestBody.create("{\"translation\":\"salam\"}", MediaType.parse("application/json")))
+                .addPart(RequestBody.create(clip, MediaType.parse("audio/mpeg")))
+                .build();
+        Buffer encoded = new Buffer();
+        multipart.writeTo(encoded);
+
+        File audioFile = new File(folder.getRoot(), "audio/clip.mp3");
+        TranslationResponseReader.Result result = TranslationResponseReader.read(
+                ResponseBody.create(encoded, multipart.contentType(), encoded.size()), audioFile);
+
+        assertEquals("salam", result.getTranslation());
+        assertArrayEquals(clip, Files.readAllBytes(audioFile.toPath()));
+    }
+
+    @Test
+    public void responseBodyFallsBackToJson() throws Exception {
+        TranslationResponseReader.Result result = TranslationResponseReader.read(
+                ResponseBody.create("{\"translation\":\"hola\",\"audio\":\"QUJD\"}", MediaType.parse("application/json")),
+                new File(folder.getRoot(), "clip.mp3"));
+
+        assertEquals("hola", result.getTranslation());
+        assertArrayEquals("ABC".getBytes(StandardCharsets.US_ASCII), Files.readAllBytes(result.getAudioFile().toPath()));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}